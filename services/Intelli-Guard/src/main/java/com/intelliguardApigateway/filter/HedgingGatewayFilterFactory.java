@@ -0,0 +1,234 @@
+package com.intelliguardApigateway.filter;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.loadbalancer.reactive.LoadBalancedExchangeFilterFunction;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.filter.headers.HttpHeadersFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hedged requests for idempotent GET routes: the request is proxied through a load-balanced
+ * client and, if no response has arrived after the route's recent latency percentile, a backup
+ * request is sent (usually to another instance, since the balancer counts the one in flight).
+ * Whichever response headers arrive first win; that body is streamed through as it arrives and
+ * the other request is cancelled. Request and response headers go through the gateway's
+ * {@link HttpHeadersFilter}s just like normally routed requests.
+ * <p>
+ * Paths matching {@code excluded-paths} and requests that accept a streaming media type are
+ * routed normally: a long-running stream would nearly always pass the hedge delay and start a
+ * duplicate on another instance.
+ *
+ * <pre>
+ * filters:
+ *   - name: Hedging
+ *     args:
+ *       percentile: 0.95
+ *       excluded-paths: /api/v1/users/export
+ * </pre>
+ */
+@Component
+public class HedgingGatewayFilterFactory extends AbstractGatewayFilterFactory<HedgingGatewayFilterFactory.Config> {
+
+	private static final List<MediaType> STREAMING_MEDIA_TYPES = List.of(MediaType.APPLICATION_NDJSON,
+			MediaType.TEXT_EVENT_STREAM);
+
+	private final WebClient webClient;
+	private final RouteLatencyTracker latencyTracker;
+	private final ObjectProvider<List<HttpHeadersFilter>> headersFiltersProvider;
+	private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+	private volatile List<HttpHeadersFilter> headersFilters;
+
+	public HedgingGatewayFilterFactory(LoadBalancedExchangeFilterFunction loadBalancerFunction,
+			RouteLatencyTracker latencyTracker, ObjectProvider<List<HttpHeadersFilter>> headersFiltersProvider) {
+		super(Config.class);
+		this.webClient = WebClient.builder().filter(loadBalancerFunction).build();
+		this.latencyTracker = latencyTracker;
+		// Resolved lazily, as NettyRoutingFilter does, since some header filters depend on gateway beans
+		this.headersFiltersProvider = headersFiltersProvider;
+	}
+
+	public static class Config {
+		private double percentile = 0.95;
+		private long initialDelayMs = 100;
+		private long minDelayMs = 10;
+		private long maxDelayMs = 1000;
+		private List<String> excludedPaths = new ArrayList<>();
+
+		public double getPercentile() {
+			return percentile;
+		}
+
+		public void setPercentile(double percentile) {
+			this.percentile = percentile;
+		}
+
+		public long getInitialDelayMs() {
+			return initialDelayMs;
+		}
+
+		public void setInitialDelayMs(long initialDelayMs) {
+			this.initialDelayMs = initialDelayMs;
+		}
+
+		public long getMinDelayMs() {
+			return minDelayMs;
+		}
+
+		public void setMinDelayMs(long minDelayMs) {
+			this.minDelayMs = minDelayMs;
+		}
+
+		public long getMaxDelayMs() {
+			return maxDelayMs;
+		}
+
+		public void setMaxDelayMs(long maxDelayMs) {
+			this.maxDelayMs = maxDelayMs;
+		}
+
+		public List<String> getExcludedPaths() {
+			return excludedPaths;
+		}
+
+		public void setExcludedPaths(List<String> excludedPaths) {
+			this.excludedPaths = excludedPaths;
+		}
+	}
+
+	@Override
+	public GatewayFilter apply(Config config) {
+		return (exchange, chain) -> {
+			ServerHttpRequest request = exchange.getRequest();
+			Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+			if (request.getMethod() != HttpMethod.GET || route == null || !hedgeable(request, config)) {
+				return chain.filter(exchange);
+			}
+
+			URI target = UriComponentsBuilder.fromUri(route.getUri())
+					.replacePath(request.getURI().getRawPath())
+					.replaceQuery(request.getURI().getRawQuery())
+					.build(true)
+					.toUri();
+			HttpHeaders headers = new HttpHeaders();
+			headers.addAll(HttpHeadersFilter.filterRequest(headersFilters(), exchange));
+			headers.remove(HttpHeaders.HOST);
+			headers.remove(HttpHeaders.CONTENT_LENGTH);
+
+			Hedge hedge = new Hedge(exchange, route.getId(), target, headers);
+			ServerWebExchangeUtils.setAlreadyRouted(exchange);
+			return Mono.when(hedge.attempt(0, Duration.ZERO), hedge.attempt(1, hedgeDelay(route.getId(), config)));
+		};
+	}
+
+	private boolean hedgeable(ServerHttpRequest request, Config config) {
+		String path = request.getPath().value();
+		for (String pattern : config.getExcludedPaths()) {
+			if (pathMatcher.match(pattern, path)) {
+				return false;
+			}
+		}
+		for (MediaType accepted : request.getHeaders().getAccept()) {
+			for (MediaType streaming : STREAMING_MEDIA_TYPES) {
+				// Wildcards like */* do not ask for a stream, so only exact matches count
+				if (!accepted.isWildcardType() && !accepted.isWildcardSubtype() && streaming.isCompatibleWith(accepted)) {
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+
+	private Duration hedgeDelay(String routeId, Config config) {
+		long observed = latencyTracker.percentile(routeId, config.getPercentile());
+		long delayMs = observed < 0 ? config.getInitialDelayMs() : observed / 1_000_000;
+		return Duration.ofMillis(Math.max(config.getMinDelayMs(), Math.min(config.getMaxDelayMs(), delayMs)));
+	}
+
+	private List<HttpHeadersFilter> headersFilters() {
+		List<HttpHeadersFilter> filters = headersFilters;
+		if (filters == null) {
+			filters = headersFiltersProvider.getIfAvailable(List::of);
+			headersFilters = filters;
+		}
+		return filters;
+	}
+
+	/**
+	 * One hedged request: two attempts race for the response, the first to receive headers claims
+	 * it and the other is cancelled, whether it is still waiting for its delay or already in flight.
+	 */
+	private final class Hedge {
+		private final ServerWebExchange exchange;
+		private final String routeId;
+		private final URI target;
+		private final HttpHeaders headers;
+		private final AtomicInteger winner = new AtomicInteger(-1);
+		private final Sinks.One<Integer> claimed = Sinks.one();
+		private final AtomicInteger failures = new AtomicInteger();
+
+		private Hedge(ServerWebExchange exchange, String routeId, URI target, HttpHeaders headers) {
+			this.exchange = exchange;
+			this.routeId = routeId;
+			this.target = target;
+			this.headers = headers;
+		}
+
+		private Mono<Void> attempt(int id, Duration delay) {
+			Mono<Void> call = Mono.defer(() -> {
+				long start = System.nanoTime();
+				return webClient.get()
+						.uri(target)
+						.headers(outgoing -> outgoing.addAll(headers))
+						.exchangeToMono(upstream -> {
+							if (!winner.compareAndSet(-1, id)) {
+								// Lost the race; exchangeToMono releases the unread body
+								return Mono.empty();
+							}
+							claimed.tryEmitValue(id);
+							latencyTracker.record(routeId, System.nanoTime() - start);
+							return write(upstream);
+						});
+			});
+			return call
+					.delaySubscription(delay)
+					.onErrorResume(e -> {
+						// Before a winner is known, one failed attempt leaves the other to answer
+						boolean lastChance = winner.get() == id || failures.incrementAndGet() == 2;
+						return lastChance ? Mono.error(e) : Mono.empty();
+					})
+					// Completing the trigger would cancel too, so the winner's own claim must never signal
+					.takeUntilOther(claimed.asMono().flatMap(w -> w == id ? Mono.never() : Mono.just(w)));
+		}
+
+		private Mono<Void> write(ClientResponse upstream) {
+			ServerHttpResponse response = exchange.getResponse();
+			response.setStatusCode(upstream.statusCode());
+			response.getHeaders().putAll(HttpHeadersFilter.filter(headersFilters(), upstream.headers().asHttpHeaders(),
+					exchange, HttpHeadersFilter.Type.RESPONSE));
+			return response.writeWith(upstream.bodyToFlux(DataBuffer.class));
+		}
+	}
+}
@@ -0,0 +1,185 @@
+package com.intelliguardApigateway.filter;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Verifies the bearer access token once at the edge and forwards its claims to downstream
+ * services as trusted {@code X-User-*} headers. Any such headers sent by the client are dropped.
+ * Verified tokens are kept in a bounded cache until they expire, so repeat requests with the
+ * same token skip signature verification.
+ */
+@Component
+public class JwtAuthenticationFilter implements GlobalFilter, Ordered {
+
+	public static final String USER_ID_HEADER = "X-User-Id";
+	public static final String USER_EMAIL_HEADER = "X-User-Email";
+	public static final String USER_ROLE_HEADER = "X-User-Role";
+	public static final String USER_PERMISSIONS_HEADER = "X-User-Permissions";
+
+	private static final String BEARER_PREFIX = "Bearer ";
+	// Refresh tokens are signed with the same key, so only tokens typed as access tokens are accepted
+	private static final String TOKEN_TYPE_CLAIM = "token_type";
+	private static final String ACCESS_TOKEN_TYPE = "access";
+	private static final byte[] UNAUTHORIZED_BODY = ("{\"type\":\"https://api.intelliguard.io/errors/authentication-error\"," +
+			"\"title\":\"Authentication Required\",\"status\":401,\"detail\":\"Valid JWT token required\"}")
+			.getBytes(StandardCharsets.UTF_8);
+
+	private final JwtParser parser;
+	private final List<String> publicPaths;
+	private final int cacheSize;
+	private final AntPathMatcher pathMatcher = new AntPathMatcher();
+	private final Map<String, VerifiedToken> verifiedTokens = new ConcurrentHashMap<>();
+
+	record VerifiedToken(String userId, String email, String role, String permissions, long expiresAtMillis) {
+	}
+
+	public JwtAuthenticationFilter(@Value("${jwt.secret}") String secret,
+			@Value("${gateway.auth.public-paths}") List<String> publicPaths,
+			@Value("${gateway.auth.verified-token-cache-size:10000}") int cacheSize) {
+		// The key and parser are built once and reused for every request
+		this.parser = Jwts.parser()
+				.verifyWith(Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8)))
+				.requireIssuer("intelliguard.io")
+				.build();
+		this.publicPaths = List.copyOf(publicPaths);
+		this.cacheSize = cacheSize;
+	}
+
+	@Override
+	public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+		ServerHttpRequest request = exchange.getRequest();
+		String path = request.getPath().value();
+
+		if (isPublic(path)) {
+			return chain.filter(exchange.mutate().request(stripIdentityHeaders(request)).build());
+		}
+
+		String authorization = request.getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+		if (authorization == null || !authorization.startsWith(BEARER_PREFIX)) {
+			return unauthorized(exchange.getResponse());
+		}
+
+		VerifiedToken token = verify(authorization.substring(BEARER_PREFIX.length()));
+		if (token == null) {
+			return unauthorized(exchange.getResponse());
+		}
+
+		ServerHttpRequest forwarded = request.mutate().headers(headers -> {
+			removeIdentityHeaders(headers);
+			headers.set(USER_ID_HEADER, token.userId());
+			headers.set(USER_EMAIL_HEADER, token.email());
+			headers.set(USER_ROLE_HEADER, token.role());
+			headers.set(USER_PERMISSIONS_HEADER, token.permissions());
+		}).build();
+		return chain.filter(exchange.mutate().request(forwarded).build());
+	}
+
+	@Override
+	public int getOrder() {
+		// Run before routing and any other edge filter that relies on the caller's identity
+		return Ordered.HIGHEST_PRECEDENCE + 10;
+	}
+
+	VerifiedToken verify(String token) {
+		long now = System.currentTimeMillis();
+		VerifiedToken cached = verifiedTokens.get(token);
+		if (cached != null) {
+			if (cached.expiresAtMillis() > now) {
+				return cached;
+			}
+			verifiedTokens.remove(token);
+			return null;
+		}
+
+		Claims claims;
+		String role;
+		try {
+			claims = parser.parseSignedClaims(token).getPayload();
+			role = claims.get("role", String.class);
+		} catch (JwtException | IllegalArgumentException e) {
+			return null;
+		}
+
+		Object userId = claims.get("userId");
+		if (!ACCESS_TOKEN_TYPE.equals(claims.get(TOKEN_TYPE_CLAIM)) || userId == null || role == null) {
+			return null;
+		}
+
+		Object permissions = claims.get("perms");
+		VerifiedToken verified = new VerifiedToken(
+				userId.toString(),
+				claims.getSubject(),
+				role,
+				permissions == null ? "0" : permissions.toString(),
+				claims.getExpiration().getTime());
+
+		if (verifiedTokens.size() >= cacheSize) {
+			evict(now);
+		}
+		verifiedTokens.put(token, verified);
+		return verified;
+	}
+
+	private void evict(long now) {
+		verifiedTokens.values().removeIf(entry -> entry.expiresAtMillis() <= now);
+		if (verifiedTokens.size() >= cacheSize) {
+			// Still full of live tokens: start over rather than pay for LRU bookkeeping on every hit
+			verifiedTokens.clear();
+		}
+	}
+
+	private boolean isPublic(String path) {
+		for (String pattern : publicPaths) {
+			if (pathMatcher.match(pattern, path)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private ServerHttpRequest stripIdentityHeaders(ServerHttpRequest request) {
+		HttpHeaders headers = request.getHeaders();
+		if (!headers.containsKey(USER_ID_HEADER) && !headers.containsKey(USER_EMAIL_HEADER)
+				&& !headers.containsKey(USER_ROLE_HEADER) && !headers.containsKey(USER_PERMISSIONS_HEADER)) {
+			return request;
+		}
+		return request.mutate().headers(JwtAuthenticationFilter::removeIdentityHeaders).build();
+	}
+
+	private static void removeIdentityHeaders(HttpHeaders headers) {
+		headers.remove(USER_ID_HEADER);
+		headers.remove(USER_EMAIL_HEADER);
+		headers.remove(USER_ROLE_HEADER);
+		headers.remove(USER_PERMISSIONS_HEADER);
+	}
+
+	private Mono<Void> unauthorized(ServerHttpResponse response) {
+		response.setStatusCode(HttpStatus.UNAUTHORIZED);
+		response.getHeaders().setContentType(MediaType.APPLICATION_PROBLEM_JSON);
+		DataBuffer body = response.bufferFactory().wrap(UNAUTHORIZED_BODY);
+		return response.writeWith(Mono.just(body));
+	}
+}
@@ -0,0 +1,316 @@
+package com.intelliguardApigateway.filter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.reactivestreams.Publisher;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Micro-cache for polled GET routes. Concurrent identical requests (same route, path, query,
+ * {@code Accept} and verified caller) share one upstream call, and cacheable 200 responses are
+ * served from a size-bounded in-memory cache for a short TTL.
+ * <p>
+ * Cache-Control is respected in both directions: {@code no-store} on the request bypasses the
+ * cache, {@code no-cache} or {@code max-age=0} skips the lookup but refreshes the entry; responses
+ * marked {@code no-store}, {@code no-cache} or carrying {@code Set-Cookie} are never stored, and
+ * {@code s-maxage}/{@code max-age} shorten the route TTL. {@code private} responses are stored
+ * because entries are keyed by the verified caller.
+ *
+ * <pre>
+ * filters:
+ *   - name: MicroCache
+ *     args:
+ *       ttl-ms: 2000
+ * </pre>
+ */
+@Component
+public class MicroCacheGatewayFilterFactory extends AbstractGatewayFilterFactory<MicroCacheGatewayFilterFactory.Config> {
+
+	public static final String CACHE_STATUS_HEADER = "X-Cache";
+
+	private static final List<String> UNCACHED_HEADERS = List.of(HttpHeaders.TRANSFER_ENCODING, HttpHeaders.CONNECTION,
+			"Keep-Alive", HttpHeaders.CONTENT_LENGTH, RateLimitFilter.LIMIT_HEADER, RateLimitFilter.REMAINING_HEADER,
+			RateLimitFilter.RESET_HEADER);
+
+	private final MeterRegistry meterRegistry;
+	private final int maxBodyBytes;
+
+	private final Map<String, CachedResponse> cache;
+	private final Map<String, Sinks.One<CachedResponse>> inFlight = new ConcurrentHashMap<>();
+	private final Map<String, RouteMetrics> routeMetrics = new ConcurrentHashMap<>();
+
+	public MicroCacheGatewayFilterFactory(MeterRegistry meterRegistry,
+			@Value("${gateway.micro-cache.max-entries:10000}") int maxEntries,
+			@Value("${gateway.micro-cache.max-body-bytes:262144}") int maxBodyBytes) {
+		super(Config.class);
+		this.meterRegistry = meterRegistry;
+		this.maxBodyBytes = maxBodyBytes;
+		this.cache = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, CachedResponse> eldest) {
+				return size() > maxEntries;
+			}
+		});
+		Gauge.builder("gateway.microcache.entries", cache, Map::size).register(meterRegistry);
+	}
+
+	public static class Config {
+		private long ttlMs = 1000;
+
+		public long getTtlMs() {
+			return ttlMs;
+		}
+
+		public void setTtlMs(long ttlMs) {
+			this.ttlMs = ttlMs;
+		}
+	}
+
+	private record CachedResponse(HttpStatusCode status, HttpHeaders headers, byte[] body, long storedAtNanos,
+			long expiresAtNanos) {
+
+		boolean isFresh(long nowNanos) {
+			return nowNanos < expiresAtNanos;
+		}
+	}
+
+	@Override
+	public GatewayFilter apply(Config config) {
+		return (exchange, chain) -> {
+			ServerHttpRequest request = exchange.getRequest();
+			Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+			String routeId = route == null ? "unknown" : route.getId();
+			RouteMetrics metrics = metricsFor(routeId);
+
+			String requestCacheControl = cacheControl(request.getHeaders());
+			if (request.getMethod() != HttpMethod.GET || requestCacheControl.contains("no-store")) {
+				metrics.bypass.increment();
+				return chain.filter(exchange);
+			}
+
+			String key = key(routeId, request);
+			boolean revalidate = requestCacheControl.contains("no-cache") || maxAge(requestCacheControl, "max-age") == 0;
+			if (!revalidate) {
+				CachedResponse cached = cache.get(key);
+				if (cached != null && cached.isFresh(System.nanoTime())) {
+					metrics.hits.increment();
+					return write(exchange, cached, "HIT");
+				}
+			}
+
+			Sinks.One<CachedResponse> sink = Sinks.one();
+			Sinks.One<CachedResponse> leader = inFlight.putIfAbsent(key, sink);
+			if (leader != null) {
+				metrics.coalesced.increment();
+				// Replay the leader's response, or go upstream ourselves if it turned out not to be cacheable
+				return leader.asMono()
+						.map(Optional::of)
+						.defaultIfEmpty(Optional.empty())
+						.flatMap(response -> response.isPresent()
+								? write(exchange, response.get(), "COALESCED")
+								: chain.filter(exchange));
+			}
+
+			metrics.misses.increment();
+			exchange.getResponse().getHeaders().set(CACHE_STATUS_HEADER, "MISS");
+			// Release before completion reaches the caller, so a request that follows this one
+			// never attaches to a leader that has already finished
+			Runnable release = () -> {
+				inFlight.remove(key, sink);
+				sink.tryEmitEmpty();
+			};
+			return lead(exchange, chain, key, sink, config)
+					.doOnTerminate(release)
+					.doOnCancel(release);
+		};
+	}
+
+	private Mono<Void> lead(ServerWebExchange exchange, GatewayFilterChain chain, String key,
+			Sinks.One<CachedResponse> sink, Config config) {
+		ServerHttpResponse original = exchange.getResponse();
+		ServerHttpResponseDecorator capturing = new ServerHttpResponseDecorator(original) {
+			@Override
+			public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+				long ttlNanos = ttlNanos(getStatusCode(), getHeaders(), config);
+				if (ttlNanos <= 0) {
+					sink.tryEmitEmpty();
+					return super.writeWith(body);
+				}
+
+				ByteArrayOutputStream captured = new ByteArrayOutputStream();
+				Flux<? extends DataBuffer> teed = Flux.from(body).doOnNext(buffer -> copy(buffer, captured))
+						.doOnComplete(() -> {
+							if (captured.size() > maxBodyBytes) {
+								sink.tryEmitEmpty();
+								return;
+							}
+							long now = System.nanoTime();
+							CachedResponse response = new CachedResponse(getStatusCode(), snapshot(getHeaders()),
+									captured.toByteArray(), now, now + ttlNanos);
+							cache.put(key, response);
+							sink.tryEmitValue(response);
+						});
+				return super.writeWith(teed);
+			}
+
+			@Override
+			public Mono<Void> writeAndFlushWith(Publisher<? extends Publisher<? extends DataBuffer>> body) {
+				// Streaming responses are passed through untouched
+				sink.tryEmitEmpty();
+				return super.writeAndFlushWith(body);
+			}
+
+			private void copy(DataBuffer buffer, ByteArrayOutputStream captured) {
+				if (captured.size() > maxBodyBytes) {
+					return;
+				}
+				try (DataBuffer.ByteBufferIterator iterator = buffer.readableByteBuffers()) {
+					while (iterator.hasNext()) {
+						ByteBuffer chunk = iterator.next();
+						byte[] bytes = new byte[chunk.remaining()];
+						chunk.get(bytes);
+						captured.write(bytes, 0, bytes.length);
+					}
+				}
+			}
+		};
+		return chain.filter(exchange.mutate().response(capturing).build());
+	}
+
+	private long ttlNanos(HttpStatusCode status, HttpHeaders headers, Config config) {
+		if (status == null || status.value() != HttpStatus.OK.value() || headers.containsKey(HttpHeaders.SET_COOKIE)
+				|| "*".equals(headers.getFirst(HttpHeaders.VARY))) {
+			return 0;
+		}
+		String cacheControl = cacheControl(headers);
+		if (cacheControl.contains("no-store") || cacheControl.contains("no-cache")) {
+			return 0;
+		}
+		long ttlMs = config.getTtlMs();
+		long sharedMaxAge = maxAge(cacheControl, "s-maxage");
+		long maxAge = sharedMaxAge >= 0 ? sharedMaxAge : maxAge(cacheControl, "max-age");
+		if (maxAge >= 0) {
+			ttlMs = Math.min(ttlMs, maxAge * 1000);
+		}
+		return ttlMs * 1_000_000;
+	}
+
+	private Mono<Void> write(ServerWebExchange exchange, CachedResponse cached, String cacheStatus) {
+		ServerHttpResponse response = exchange.getResponse();
+		response.setStatusCode(cached.status());
+		HttpHeaders headers = response.getHeaders();
+		// Headers this request already has (e.g. its own rate-limit state) take precedence
+		cached.headers().forEach(headers::putIfAbsent);
+		long ageSeconds = (System.nanoTime() - cached.storedAtNanos()) / 1_000_000_000L;
+		headers.set(HttpHeaders.AGE, String.valueOf(ageSeconds));
+		headers.set(CACHE_STATUS_HEADER, cacheStatus);
+		headers.setContentLength(cached.body().length);
+		ServerWebExchangeUtils.setAlreadyRouted(exchange);
+		return response.writeWith(Mono.fromSupplier(() -> response.bufferFactory().wrap(cached.body())));
+	}
+
+	private static HttpHeaders snapshot(HttpHeaders headers) {
+		HttpHeaders copy = new HttpHeaders();
+		headers.forEach((name, values) -> {
+			if (UNCACHED_HEADERS.stream().noneMatch(name::equalsIgnoreCase)) {
+				copy.put(name, List.copyOf(values));
+			}
+		});
+		copy.remove(CACHE_STATUS_HEADER);
+		return copy;
+	}
+
+	private static String key(String routeId, ServerHttpRequest request) {
+		HttpHeaders headers = request.getHeaders();
+		return routeId + ' ' + request.getURI().getRawPath() + '?' + request.getURI().getRawQuery()
+				+ '|' + headers.getFirst(HttpHeaders.ACCEPT)
+				+ '|' + headers.getFirst(JwtAuthenticationFilter.USER_ID_HEADER)
+				+ '|' + headers.getFirst(JwtAuthenticationFilter.USER_PERMISSIONS_HEADER);
+	}
+
+	private static String cacheControl(HttpHeaders headers) {
+		String value = headers.getCacheControl();
+		return value == null ? "" : value.toLowerCase(Locale.ROOT);
+	}
+
+	/**
+	 * Returns the value of a {@code name=seconds} directive, or -1 if it is absent or malformed.
+	 */
+	private static long maxAge(String cacheControl, String name) {
+		for (String directive : cacheControl.split(",")) {
+			String trimmed = directive.trim();
+			if (trimmed.startsWith(name + "=")) {
+				try {
+					return Long.parseLong(trimmed.substring(name.length() + 1).replace("\"", ""));
+				} catch (NumberFormatException e) {
+					return -1;
+				}
+			}
+		}
+		return -1;
+	}
+
+	private RouteMetrics metricsFor(String routeId) {
+		return routeMetrics.computeIfAbsent(routeId, id -> new RouteMetrics(meterRegistry, id));
+	}
+
+	private static final class RouteMetrics {
+		private final Counter hits;
+		private final Counter coalesced;
+		private final Counter misses;
+		private final Counter bypass;
+
+		private RouteMetrics(MeterRegistry registry, String routeId) {
+			hits = counter(registry, routeId, "hit");
+			coalesced = counter(registry, routeId, "coalesced");
+			misses = counter(registry, routeId, "miss");
+			bypass = counter(registry, routeId, "bypass");
+			Gauge.builder("gateway.microcache.hit.ratio", this, RouteMetrics::hitRatio)
+					.tag("route", routeId)
+					.register(registry);
+		}
+
+		private static Counter counter(MeterRegistry registry, String routeId, String result) {
+			return Counter.builder("gateway.microcache.requests")
+					.tag("route", routeId)
+					.tag("result", result)
+					.register(registry);
+		}
+
+		private double hitRatio() {
+			// Coalesced requests were also answered without their own upstream call
+			double served = hits.count() + coalesced.count();
+			double total = served + misses.count();
+			return total == 0 ? 0.0 : served / total;
+		}
+	}
+}
@@ -0,0 +1,89 @@
+package com.intelliguardApigateway.filter;
+
+import com.intelliguardApigateway.ratelimit.HybridRateLimiter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.support.ipresolver.RemoteAddressResolver;
+import org.springframework.cloud.gateway.support.ipresolver.XForwardedRemoteAddressResolver;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Applies {@link HybridRateLimiter} per caller and path, and adds the {@code X-RateLimit-*}
+ * headers from the API specification to every response. Callers are identified by the user id
+ * from a verified access token, otherwise by the client IP. The IP is the connection's peer
+ * address unless {@code gateway.rate-limit.trusted-proxy-hops} says how many proxies in front of
+ * the gateway append to {@code X-Forwarded-For}; entries a client could have written are never used.
+ */
+@Component
+public class RateLimitFilter implements GlobalFilter, Ordered {
+
+	public static final String LIMIT_HEADER = "X-RateLimit-Limit";
+	public static final String REMAINING_HEADER = "X-RateLimit-Remaining";
+	public static final String RESET_HEADER = "X-RateLimit-Reset";
+
+	private final HybridRateLimiter rateLimiter;
+	private final RemoteAddressResolver remoteAddressResolver;
+
+	public RateLimitFilter(HybridRateLimiter rateLimiter,
+			@Value("${gateway.rate-limit.trusted-proxy-hops:0}") int trustedProxyHops) {
+		this.rateLimiter = rateLimiter;
+		this.remoteAddressResolver = trustedProxyHops > 0
+				? XForwardedRemoteAddressResolver.maxTrustedIndex(trustedProxyHops)
+				: new RemoteAddressResolver() {
+				};
+	}
+
+	@Override
+	public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+		ServerHttpRequest request = exchange.getRequest();
+		HybridRateLimiter.Decision decision = rateLimiter.tryAcquire(request.getPath().value(), identity(exchange));
+
+		ServerHttpResponse response = exchange.getResponse();
+		HttpHeaders headers = response.getHeaders();
+		headers.set(LIMIT_HEADER, String.valueOf(decision.limit()));
+		headers.set(REMAINING_HEADER, String.valueOf(decision.remaining()));
+		headers.set(RESET_HEADER, String.valueOf(decision.resetEpochSeconds()));
+
+		if (decision.allowed()) {
+			return chain.filter(exchange);
+		}
+
+		response.setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+		headers.set(HttpHeaders.RETRY_AFTER, String.valueOf(decision.retryAfterSeconds()));
+		headers.setContentType(MediaType.APPLICATION_PROBLEM_JSON);
+		byte[] body = ("{\"type\":\"https://api.intelliguard.io/errors/rate-limit-error\",\"title\":\"Rate Limit Exceeded\"," +
+				"\"status\":429,\"detail\":\"Too many requests. Please try again later.\",\"retryAfter\":" +
+				decision.retryAfterSeconds() + "}").getBytes(StandardCharsets.UTF_8);
+		DataBuffer buffer = response.bufferFactory().wrap(body);
+		return response.writeWith(Mono.just(buffer));
+	}
+
+	@Override
+	public int getOrder() {
+		// After JwtAuthenticationFilter so the verified user id is available
+		return Ordered.HIGHEST_PRECEDENCE + 20;
+	}
+
+	String identity(ServerWebExchange exchange) {
+		// JwtAuthenticationFilter drops client-supplied X-User-Id, so this is always from a verified token
+		String userId = exchange.getRequest().getHeaders().getFirst(JwtAuthenticationFilter.USER_ID_HEADER);
+		if (userId != null) {
+			return "user:" + userId;
+		}
+		InetSocketAddress remote = remoteAddressResolver.resolve(exchange);
+		return "ip:" + (remote == null || remote.getAddress() == null ? "unknown" : remote.getAddress().getHostAddress());
+	}
+}
@@ -0,0 +1,68 @@
+package com.intelliguardApigateway.filter;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps a sliding sample of recent upstream latencies per route and serves a cached percentile,
+ * recomputed every {@value #RECOMPUTE_EVERY} samples so the hot path never sorts.
+ */
+@Component
+public class RouteLatencyTracker {
+
+	private static final int SAMPLE_SIZE = 512;
+	private static final int RECOMPUTE_EVERY = 64;
+
+	private final Map<String, Window> windows = new ConcurrentHashMap<>();
+
+	private static final class Window {
+		private final long[] samples = new long[SAMPLE_SIZE];
+		private int count;
+		private int next;
+		private int sinceRecompute;
+		private final Map<Double, Long> percentiles = new ConcurrentHashMap<>();
+
+		synchronized void record(long nanos) {
+			samples[next] = nanos;
+			next = (next + 1) % SAMPLE_SIZE;
+			count = Math.min(count + 1, SAMPLE_SIZE);
+			if (++sinceRecompute >= RECOMPUTE_EVERY) {
+				sinceRecompute = 0;
+				percentiles.clear();
+			}
+		}
+
+		long percentile(double p) {
+			Long cached = percentiles.get(p);
+			if (cached != null) {
+				return cached;
+			}
+			long[] sorted;
+			synchronized (this) {
+				if (count == 0) {
+					return -1;
+				}
+				sorted = Arrays.copyOf(samples, count);
+			}
+			Arrays.sort(sorted);
+			long value = sorted[Math.min(sorted.length - 1, (int) Math.ceil(p * sorted.length) - 1)];
+			percentiles.put(p, value);
+			return value;
+		}
+	}
+
+	public void record(String routeId, long nanos) {
+		windows.computeIfAbsent(routeId, id -> new Window()).record(nanos);
+	}
+
+	/**
+	 * Returns the latency percentile in nanoseconds, or -1 if the route has no samples yet.
+	 */
+	public long percentile(String routeId, double p) {
+		Window window = windows.get(routeId);
+		return window == null ? -1 : window.percentile(p);
+	}
+}
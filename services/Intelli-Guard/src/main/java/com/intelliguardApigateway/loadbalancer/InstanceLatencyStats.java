@@ -0,0 +1,107 @@
+package com.intelliguardApigateway.loadbalancer;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Peak-EWMA latency and outstanding request counts per service instance, shared by every
+ * load-balanced client in the gateway. A slow response raises an instance's latency estimate
+ * immediately; fast responses only pull it down gradually, so an instance stuck in a GC pause
+ * or saturated with work stops receiving traffic quickly and recovers smoothly. The estimate also
+ * decays while an instance gets no traffic, so one that was shunned after a spike is tried again
+ * later. Instances without samples start at a default latency rather than at zero, so a new pod
+ * does not take all traffic before its first response comes back.
+ */
+@Component
+public class InstanceLatencyStats {
+
+	private final double decayNanos;
+	private final double defaultLatencyNanos;
+	private final Map<String, InstanceStats> stats = new ConcurrentHashMap<>();
+
+	public InstanceLatencyStats(@Value("${gateway.load-balancer.ewma-decay-ms:10000}") long decayMs,
+			@Value("${gateway.load-balancer.default-latency-ms:50}") long defaultLatencyMs) {
+		this.decayNanos = decayMs * 1_000_000d;
+		this.defaultLatencyNanos = defaultLatencyMs * 1_000_000d;
+	}
+
+	static final class InstanceStats {
+		private final double defaultLatencyNanos;
+		private double ewmaNanos;
+		private long lastUpdateNanos;
+		private int outstanding;
+		private boolean sampled;
+
+		InstanceStats(double defaultLatencyNanos) {
+			this.defaultLatencyNanos = defaultLatencyNanos;
+		}
+
+		synchronized void start() {
+			outstanding++;
+		}
+
+		synchronized void complete(long latencyNanos, long nowNanos, double decayNanos) {
+			outstanding = Math.max(0, outstanding - 1);
+			if (!sampled) {
+				// The first measurement replaces the default outright
+				sampled = true;
+				ewmaNanos = latencyNanos;
+				lastUpdateNanos = nowNanos;
+				return;
+			}
+			observe(latencyNanos, nowNanos, decayNanos);
+		}
+
+		synchronized double cost(long nowNanos, double decayNanos) {
+			if (!sampled) {
+				return defaultLatencyNanos * (outstanding + 1);
+			}
+			// Decay as if a zero-latency sample arrived now, so the estimate keeps falling without traffic
+			observe(0, nowNanos, decayNanos);
+			return ewmaNanos * (outstanding + 1);
+		}
+
+		private void observe(double latencyNanos, long nowNanos, double decayNanos) {
+			if (latencyNanos > ewmaNanos) {
+				ewmaNanos = latencyNanos;
+			} else {
+				// Callers read the clock before taking the lock, so time can appear to run backwards
+				double weight = Math.exp(-Math.max(0, nowNanos - lastUpdateNanos) / decayNanos);
+				ewmaNanos = ewmaNanos * weight + latencyNanos * (1 - weight);
+			}
+			lastUpdateNanos = Math.max(lastUpdateNanos, nowNanos);
+		}
+	}
+
+	public void onStart(ServiceInstance instance) {
+		statsFor(instance).start();
+	}
+
+	public void onComplete(ServiceInstance instance, long latencyNanos) {
+		onComplete(instance, latencyNanos, System.nanoTime());
+	}
+
+	public double cost(ServiceInstance instance) {
+		return cost(instance, System.nanoTime());
+	}
+
+	void onComplete(ServiceInstance instance, long latencyNanos, long nowNanos) {
+		statsFor(instance).complete(latencyNanos, nowNanos, decayNanos);
+	}
+
+	double cost(ServiceInstance instance, long nowNanos) {
+		return statsFor(instance).cost(nowNanos, decayNanos);
+	}
+
+	private InstanceStats statsFor(ServiceInstance instance) {
+		return stats.computeIfAbsent(key(instance), k -> new InstanceStats(defaultLatencyNanos));
+	}
+
+	private static String key(ServiceInstance instance) {
+		return instance.getServiceId() + "@" + instance.getHost() + ":" + instance.getPort();
+	}
+}
@@ -0,0 +1,57 @@
+package com.intelliguardApigateway.loadbalancer;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.EmptyResponse;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.loadbalancer.core.NoopServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.core.ReactorServiceInstanceLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Power-of-two-choices load balancer: picks two instances at random and routes to the one with
+ * the lower peak-EWMA cost (latency estimate times outstanding requests + 1).
+ */
+public class PeakEwmaLoadBalancer implements ReactorServiceInstanceLoadBalancer {
+
+	private final ObjectProvider<ServiceInstanceListSupplier> supplierProvider;
+	private final InstanceLatencyStats latencyStats;
+
+	public PeakEwmaLoadBalancer(ObjectProvider<ServiceInstanceListSupplier> supplierProvider,
+			InstanceLatencyStats latencyStats) {
+		this.supplierProvider = supplierProvider;
+		this.latencyStats = latencyStats;
+	}
+
+	@Override
+	public Mono<Response<ServiceInstance>> choose(Request request) {
+		ServiceInstanceListSupplier supplier = supplierProvider.getIfAvailable(NoopServiceInstanceListSupplier::new);
+		return supplier.get(request).next().map(this::choose);
+	}
+
+	Response<ServiceInstance> choose(List<ServiceInstance> instances) {
+		if (instances.isEmpty()) {
+			return new EmptyResponse();
+		}
+		if (instances.size() == 1) {
+			return new DefaultResponse(instances.get(0));
+		}
+
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		int first = random.nextInt(instances.size());
+		int second = random.nextInt(instances.size() - 1);
+		if (second >= first) {
+			second++;
+		}
+
+		ServiceInstance a = instances.get(first);
+		ServiceInstance b = instances.get(second);
+		return new DefaultResponse(latencyStats.cost(a) <= latencyStats.cost(b) ? a : b);
+	}
+}
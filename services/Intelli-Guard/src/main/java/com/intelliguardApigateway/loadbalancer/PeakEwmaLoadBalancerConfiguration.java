@@ -0,0 +1,24 @@
+package com.intelliguardApigateway.loadbalancer;
+
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.loadbalancer.core.ReactorLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.env.Environment;
+
+/**
+ * Per-client load balancer configuration, registered through {@code @LoadBalancerClients}. It is
+ * intentionally not a {@code @Configuration} class so component scanning leaves it to the
+ * load balancer's child contexts.
+ */
+public class PeakEwmaLoadBalancerConfiguration {
+
+	@Bean
+	public ReactorLoadBalancer<ServiceInstance> peakEwmaLoadBalancer(Environment environment,
+			LoadBalancerClientFactory clientFactory, InstanceLatencyStats latencyStats) {
+		String serviceId = environment.getProperty(LoadBalancerClientFactory.PROPERTY_NAME);
+		return new PeakEwmaLoadBalancer(clientFactory.getLazyProvider(serviceId, ServiceInstanceListSupplier.class),
+				latencyStats);
+	}
+}
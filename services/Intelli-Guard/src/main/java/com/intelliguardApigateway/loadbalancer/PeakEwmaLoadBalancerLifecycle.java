@@ -0,0 +1,57 @@
+package com.intelliguardApigateway.loadbalancer;
+
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerLifecycle;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.client.loadbalancer.TimedRequestContext;
+import org.springframework.stereotype.Component;
+
+/**
+ * Feeds observed response times of load-balanced calls into {@link InstanceLatencyStats}.
+ */
+@Component
+public class PeakEwmaLoadBalancerLifecycle implements LoadBalancerLifecycle<Object, Object, ServiceInstance> {
+
+	// A failed call counts as at least this slow so an instance refusing connections does not look fast
+	private static final long FAILURE_PENALTY_NANOS = 1_000_000_000L;
+
+	private final InstanceLatencyStats latencyStats;
+
+	public PeakEwmaLoadBalancerLifecycle(InstanceLatencyStats latencyStats) {
+		this.latencyStats = latencyStats;
+	}
+
+	@Override
+	public void onStart(Request<Object> request) {
+	}
+
+	@Override
+	public void onStartRequest(Request<Object> request, Response<ServiceInstance> lbResponse) {
+		if (!lbResponse.hasServer()) {
+			return;
+		}
+		if (request.getContext() instanceof TimedRequestContext timed) {
+			timed.setRequestStartTime(System.nanoTime());
+		}
+		latencyStats.onStart(lbResponse.getServer());
+	}
+
+	@Override
+	public void onComplete(CompletionContext<Object, ServiceInstance, Object> completionContext) {
+		Response<ServiceInstance> lbResponse = completionContext.getLoadBalancerResponse();
+		if (lbResponse == null || !lbResponse.hasServer()) {
+			return;
+		}
+		long latency = 0;
+		if (completionContext.getLoadBalancerRequest().getContext() instanceof TimedRequestContext timed
+				&& timed.getRequestStartTime() > 0) {
+			latency = System.nanoTime() - timed.getRequestStartTime();
+		}
+		if (completionContext.status() == CompletionContext.Status.FAILED) {
+			latency = Math.max(latency, FAILURE_PENALTY_NANOS);
+		}
+		latencyStats.onComplete(lbResponse.getServer(), latency);
+	}
+}
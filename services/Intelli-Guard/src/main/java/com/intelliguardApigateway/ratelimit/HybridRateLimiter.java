@@ -0,0 +1,166 @@
+package com.intelliguardApigateway.ratelimit;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Enforces {@link RateLimitRule}s with per-key token buckets held in memory, so no request waits
+ * on the network. A background task periodically pushes each bucket's local consumption to Redis
+ * in one batched round of INCRBYs and debits what other gateway replicas consumed. At most
+ * {@code max-buckets} buckets are kept; when they are all in use, new callers share one overflow
+ * bucket per rule until idle buckets are evicted.
+ */
+@Component
+public class HybridRateLimiter {
+
+	// KEYS[1] = window counter, ARGV[1] = local delta, ARGV[2] = ttl seconds
+	private static final RedisScript<Long> INCREMENT_SCRIPT = RedisScript.of(
+			"local c = redis.call('INCRBY', KEYS[1], ARGV[1]) " +
+			"redis.call('EXPIRE', KEYS[1], ARGV[2]) " +
+			"return c", Long.class);
+
+	private static final String KEY_PREFIX = "rl:";
+	private static final String OVERFLOW_IDENTITY = "overflow";
+	private static final long EVICTION_INTERVAL_NANOS = 1_000_000_000L;
+
+	public record Decision(boolean allowed, long limit, long remaining, long resetEpochSeconds, long retryAfterSeconds) {
+	}
+
+	private final ReactiveStringRedisTemplate redisTemplate;
+	private final List<RateLimitRule> rules;
+	private final RateLimitRule defaultRule;
+	private final long syncIntervalMs;
+	private final int maxBuckets;
+	private final AntPathMatcher pathMatcher = new AntPathMatcher();
+	private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+	private final Map<String, TokenBucket> overflowBuckets = new ConcurrentHashMap<>();
+
+	private volatile long lastEvictionNanos = System.nanoTime() - EVICTION_INTERVAL_NANOS;
+
+	private Disposable reconciler;
+
+	public HybridRateLimiter(ReactiveStringRedisTemplate redisTemplate,
+			@Value("${gateway.rate-limit.rules:}") List<String> rules,
+			@Value("${gateway.rate-limit.default:/**=1000/60}") String defaultRule,
+			@Value("${gateway.rate-limit.sync-interval-ms:250}") long syncIntervalMs,
+			@Value("${gateway.rate-limit.max-buckets:100000}") int maxBuckets) {
+		this.redisTemplate = redisTemplate;
+		this.rules = rules.stream().filter(rule -> !rule.isBlank()).map(RateLimitRule::parse).toList();
+		this.defaultRule = RateLimitRule.parse(defaultRule);
+		this.syncIntervalMs = syncIntervalMs;
+		this.maxBuckets = maxBuckets;
+	}
+
+	@PostConstruct
+	public void start() {
+		reconciler = Flux.interval(Duration.ofMillis(syncIntervalMs))
+				.onBackpressureDrop()
+				.concatMap(tick -> reconcile().onErrorResume(e -> Mono.empty()))
+				.subscribe();
+	}
+
+	@PreDestroy
+	public void stop() {
+		if (reconciler != null) {
+			reconciler.dispose();
+		}
+	}
+
+	public Decision tryAcquire(String path, String identity) {
+		RateLimitRule rule = ruleFor(path);
+		long now = System.nanoTime();
+		TokenBucket bucket = bucketFor(rule, identity, now);
+
+		boolean allowed = bucket.tryConsume(now);
+		long nowSeconds = System.currentTimeMillis() / 1000;
+		long resetSeconds = nowSeconds + toSeconds(bucket.nanosUntil(rule.limit()));
+		long retryAfter = allowed ? 0 : Math.max(1, toSeconds(bucket.nanosUntil(1)));
+		return new Decision(allowed, rule.limit(), bucket.remaining(), resetSeconds, retryAfter);
+	}
+
+	/**
+	 * Pushes local consumption to Redis and applies other replicas' consumption to the local buckets.
+	 */
+	public Mono<Void> reconcile() {
+		long nowNanos = System.nanoTime();
+		long nowSeconds = System.currentTimeMillis() / 1000;
+		buckets.values().removeIf(bucket -> bucket.isIdle(nowNanos));
+
+		return Flux.concat(Flux.fromIterable(buckets.entrySet()), Flux.fromIterable(overflowBuckets.entrySet()))
+				.flatMap(entry -> {
+					TokenBucket bucket = entry.getValue();
+					long window = nowSeconds / bucket.rule().windowSeconds();
+					long delta = bucket.drainPending();
+					if (delta == 0) {
+						// Nothing consumed here since the last round; catch up on the next local use
+						return Mono.empty();
+					}
+					String key = KEY_PREFIX + entry.getKey() + ":" + window;
+					return redisTemplate.execute(INCREMENT_SCRIPT, List.of(key),
+									List.of(String.valueOf(delta), String.valueOf(bucket.rule().windowSeconds() * 2)))
+							.next()
+							.doOnNext(count -> bucket.applyGlobal(window, count, delta))
+							.onErrorResume(e -> {
+								// Keep the delta for the next round; limiting stays local meanwhile
+								bucket.restorePending(delta);
+								return Mono.empty();
+							});
+				}, 64)
+				.then();
+	}
+
+	int bucketCount() {
+		return buckets.size();
+	}
+
+	private TokenBucket bucketFor(RateLimitRule rule, String identity, long now) {
+		String key = rule.pattern() + "|" + identity;
+		TokenBucket bucket = buckets.get(key);
+		if (bucket != null) {
+			return bucket;
+		}
+		if (buckets.size() >= maxBuckets) {
+			evict(now);
+			if (buckets.size() >= maxBuckets) {
+				return overflowBuckets.computeIfAbsent(rule.pattern() + "|" + OVERFLOW_IDENTITY,
+						overflowKey -> new TokenBucket(rule, now));
+			}
+		}
+		return buckets.computeIfAbsent(key, newKey -> new TokenBucket(rule, now));
+	}
+
+	private void evict(long now) {
+		// At most once a second, so a flood of new callers does not rescan the map on every request
+		if (now - lastEvictionNanos < EVICTION_INTERVAL_NANOS) {
+			return;
+		}
+		lastEvictionNanos = now;
+		buckets.values().removeIf(bucket -> bucket.isIdle(now) || bucket.isFull(now));
+	}
+
+	private RateLimitRule ruleFor(String path) {
+		for (RateLimitRule rule : rules) {
+			if (pathMatcher.match(rule.pattern(), path)) {
+				return rule;
+			}
+		}
+		return defaultRule;
+	}
+
+	private static long toSeconds(long nanos) {
+		return (nanos + 999_999_999L) / 1_000_000_000L;
+	}
+}
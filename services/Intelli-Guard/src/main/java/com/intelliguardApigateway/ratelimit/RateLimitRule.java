@@ -0,0 +1,19 @@
+package com.intelliguardApigateway.ratelimit;
+
+/**
+ * A rate limit for requests whose path matches {@code pattern} (Ant style).
+ * Parsed from {@code pattern=limit/windowSeconds}, e.g. {@code /api/v1/transactions/batch=100/60}.
+ */
+public record RateLimitRule(String pattern, long limit, long windowSeconds) {
+
+	public static RateLimitRule parse(String spec) {
+		int eq = spec.lastIndexOf('=');
+		int slash = spec.lastIndexOf('/');
+		if (eq <= 0 || slash < eq) {
+			throw new IllegalArgumentException("Invalid rate limit rule: " + spec);
+		}
+		return new RateLimitRule(spec.substring(0, eq).trim(),
+				Long.parseLong(spec.substring(eq + 1, slash).trim()),
+				Long.parseLong(spec.substring(slash + 1).trim()));
+	}
+}
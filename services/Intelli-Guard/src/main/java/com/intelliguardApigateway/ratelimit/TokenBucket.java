@@ -0,0 +1,92 @@
+package com.intelliguardApigateway.ratelimit;
+
+/**
+ * Local token bucket that refills at {@code limit / window}. Consumption on this instance is
+ * tracked as a pending delta that the reconciler pushes to Redis; whatever other instances
+ * consumed in the meantime is then debited from this bucket, keeping the limit roughly global.
+ */
+final class TokenBucket {
+
+	private final RateLimitRule rule;
+	private final double refillPerNano;
+
+	private double tokens;
+	private long lastRefillNanos;
+	private long lastAccessNanos;
+	private long pendingConsumed;
+	private long syncedWindow = -1;
+	private long lastGlobalCount;
+
+	TokenBucket(RateLimitRule rule, long nowNanos) {
+		this.rule = rule;
+		this.refillPerNano = (double) rule.limit() / (rule.windowSeconds() * 1_000_000_000L);
+		this.tokens = rule.limit();
+		this.lastRefillNanos = nowNanos;
+		this.lastAccessNanos = nowNanos;
+	}
+
+	RateLimitRule rule() {
+		return rule;
+	}
+
+	synchronized boolean tryConsume(long nowNanos) {
+		refill(nowNanos);
+		lastAccessNanos = nowNanos;
+		if (tokens >= 1) {
+			tokens -= 1;
+			pendingConsumed++;
+			return true;
+		}
+		return false;
+	}
+
+	synchronized long remaining() {
+		return (long) tokens;
+	}
+
+	synchronized long nanosUntil(double target) {
+		return tokens >= target ? 0 : (long) Math.ceil((target - tokens) / refillPerNano);
+	}
+
+	synchronized long drainPending() {
+		long delta = pendingConsumed;
+		pendingConsumed = 0;
+		return delta;
+	}
+
+	synchronized void restorePending(long delta) {
+		pendingConsumed += delta;
+	}
+
+	/**
+	 * Applies the global count for {@code window} returned by Redis after adding {@code ownDelta}.
+	 */
+	synchronized void applyGlobal(long window, long globalCount, long ownDelta) {
+		if (window != syncedWindow) {
+			syncedWindow = window;
+			lastGlobalCount = 0;
+		}
+		long consumedElsewhere = globalCount - lastGlobalCount - ownDelta;
+		lastGlobalCount = globalCount;
+		if (consumedElsewhere > 0) {
+			tokens = Math.max(0, tokens - consumedElsewhere);
+		}
+	}
+
+	synchronized boolean isIdle(long nowNanos) {
+		return pendingConsumed == 0 && nowNanos - lastAccessNanos > rule.windowSeconds() * 1_000_000_000L;
+	}
+
+	/**
+	 * True when nothing is waiting to be synced and the bucket has refilled completely, so
+	 * dropping it and starting a fresh one later loses nothing but the last Redis count.
+	 */
+	synchronized boolean isFull(long nowNanos) {
+		return pendingConsumed == 0 && tokens + (nowNanos - lastRefillNanos) * refillPerNano >= rule.limit();
+	}
+
+	private void refill(long nowNanos) {
+		tokens = Math.min(rule.limit(), tokens + (nowNanos - lastRefillNanos) * refillPerNano);
+		lastRefillNanos = nowNanos;
+	}
+}
@@ -0,0 +1,170 @@
+package com.intelliguardApigateway.filter;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.loadbalancer.reactive.LoadBalancedExchangeFilterFunction;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.headers.HttpHeadersFilter;
+import org.springframework.cloud.gateway.filter.headers.RemoveHopByHopHeadersFilter;
+import org.springframework.cloud.gateway.filter.headers.XForwardedHeadersFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class HedgingGatewayFilterFactoryTests {
+
+	private static final int LARGE_BODY_BYTES = 1024 * 1024;
+
+	private final Map<String, AtomicInteger> requests = new ConcurrentHashMap<>();
+	private final Map<String, String> forwardedFor = new ConcurrentHashMap<>();
+	private final CountDownLatch slowCancelled = new CountDownLatch(1);
+	private final AtomicInteger chainCalls = new AtomicInteger();
+
+	private DisposableServer backend;
+	private GatewayFilter filter;
+
+	@BeforeEach
+	void startBackend() {
+		backend = HttpServer.create()
+				.host("localhost")
+				.port(0)
+				.route(routes -> routes
+						.get("/api/v1/users/hedged", (request, response) -> {
+							// The first request stalls, the hedged one answers at once
+							if (count(request.uri()) == 1) {
+								return response.sendString(Mono.delay(Duration.ofSeconds(10)).map(tick -> "slow")
+										.doOnCancel(slowCancelled::countDown));
+							}
+							return response.sendString(Mono.just("fast"));
+						})
+						.get("/api/v1/users/large", (request, response) -> {
+							count(request.uri());
+							return response.header("Content-Type", "application/json")
+									.sendString(Mono.just("x".repeat(LARGE_BODY_BYTES)));
+						})
+						.get("/api/v1/users/**", (request, response) -> {
+							count(request.uri());
+							forwardedFor.put(request.uri(), String.valueOf(request.requestHeaders().get("X-Forwarded-For")));
+							return response.header("Connection", "keep-alive").sendString(Mono.just("ok"));
+						}))
+				.bindNow();
+
+		LoadBalancedExchangeFilterFunction toBackend = (request, next) -> next.exchange(ClientRequest.from(request)
+				.url(UriComponentsBuilder.fromUri(request.url()).scheme("http").host("localhost").port(backend.port())
+						.build(true).toUri())
+				.build());
+		@SuppressWarnings("unchecked")
+		ObjectProvider<List<HttpHeadersFilter>> headersFilters = mock(ObjectProvider.class);
+		when(headersFilters.getIfAvailable(any())).thenReturn(List.of(new XForwardedHeadersFilter(), new RemoveHopByHopHeadersFilter()));
+
+		HedgingGatewayFilterFactory.Config config = new HedgingGatewayFilterFactory.Config();
+		config.setInitialDelayMs(50);
+		config.setMinDelayMs(50);
+		config.setMaxDelayMs(50);
+		config.setExcludedPaths(List.of("/api/v1/users/export"));
+		filter = new HedgingGatewayFilterFactory(toBackend, new RouteLatencyTracker(), headersFilters).apply(config);
+	}
+
+	@AfterEach
+	void stopBackend() {
+		backend.disposeNow();
+	}
+
+	@Test
+	void backupAnswersAndTheStalledRequestIsCancelled() throws Exception {
+		MockServerWebExchange exchange = exchange(MockServerHttpRequest.get("/api/v1/users/hedged"));
+		filter.filter(exchange, passThrough()).block(Duration.ofSeconds(5));
+
+		assertEquals("fast", exchange.getResponse().getBodyAsString().block());
+		assertEquals(2, requests.get("/api/v1/users/hedged").get());
+		assertTrue(slowCancelled.await(5, TimeUnit.SECONDS), "stalled request should be cancelled");
+		assertTrue(ServerWebExchangeUtils.isAlreadyRouted(exchange));
+	}
+
+	@Test
+	void fastResponseNeverSendsABackup() throws Exception {
+		MockServerWebExchange exchange = exchange(MockServerHttpRequest.get("/api/v1/users/42"));
+		filter.filter(exchange, passThrough()).block(Duration.ofSeconds(5));
+		Thread.sleep(200);
+
+		assertEquals("ok", exchange.getResponse().getBodyAsString().block());
+		assertEquals(1, requests.get("/api/v1/users/42").get());
+	}
+
+	@Test
+	void appliesTheGatewayHeaderFilters() {
+		MockServerWebExchange exchange = exchange(MockServerHttpRequest.get("/api/v1/users/42"));
+		filter.filter(exchange, passThrough()).block(Duration.ofSeconds(5));
+
+		assertEquals("203.0.113.9", forwardedFor.get("/api/v1/users/42"));
+		assertFalse(exchange.getResponse().getHeaders().containsKey("Connection"));
+	}
+
+	@Test
+	void streamsBodiesLargerThanTheCodecBuffer() {
+		MockServerWebExchange exchange = exchange(MockServerHttpRequest.get("/api/v1/users/large"));
+		filter.filter(exchange, passThrough()).block(Duration.ofSeconds(5));
+
+		assertEquals(HttpStatus.OK, exchange.getResponse().getStatusCode());
+		assertEquals(LARGE_BODY_BYTES, exchange.getResponse().getBodyAsString().block().length());
+	}
+
+	@Test
+	void routesNonGetExcludedAndStreamingRequestsNormally() {
+		filter.filter(exchange(MockServerHttpRequest.post("/api/v1/users/42")), passThrough()).block();
+		filter.filter(exchange(MockServerHttpRequest.get("/api/v1/users/export")), passThrough()).block();
+		filter.filter(exchange(MockServerHttpRequest.get("/api/v1/users/42").accept(MediaType.APPLICATION_NDJSON)),
+				passThrough()).block();
+
+		assertEquals(3, chainCalls.get());
+		assertTrue(requests.isEmpty());
+	}
+
+	private int count(String uri) {
+		return requests.computeIfAbsent(uri, key -> new AtomicInteger()).incrementAndGet();
+	}
+
+	private GatewayFilterChain passThrough() {
+		return exchange -> {
+			chainCalls.incrementAndGet();
+			return Mono.empty();
+		};
+	}
+
+	private static MockServerWebExchange exchange(MockServerHttpRequest.BaseBuilder<?> request) {
+		MockServerWebExchange exchange = MockServerWebExchange.from(
+				request.remoteAddress(new InetSocketAddress("203.0.113.9", 40_000)));
+		Route route = Route.async().id("user-service-route").uri(URI.create("lb://user-service"))
+				.predicate(e -> true).build();
+		exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR, route);
+		return exchange;
+	}
+}
@@ -0,0 +1,56 @@
+package com.intelliguardApigateway.filter;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+import static com.intelliguardApigateway.filter.JwtAuthenticationFilterTests.SECRET;
+import static com.intelliguardApigateway.filter.JwtAuthenticationFilterTests.accessToken;
+
+/**
+ * Rough per-request overhead benchmark of {@link JwtAuthenticationFilter}, comparing full
+ * signature verification with the verified-token cache. Runs only with {@code -Pload-test}.
+ */
+@Tag("load")
+class JwtAuthenticationFilterBenchmarkTests {
+
+	private static final Logger log = LoggerFactory.getLogger(JwtAuthenticationFilterBenchmarkTests.class);
+	private static final int ITERATIONS = 20_000;
+
+	@Test
+	void benchmarkFilterOverheadPerRequest() {
+		String[] tokens = new String[ITERATIONS];
+		for (int i = 0; i < ITERATIONS; i++) {
+			tokens[i] = accessToken((long) i);
+		}
+
+		// Warm up the JIT on both paths
+		run(tokens, new JwtAuthenticationFilter(SECRET, List.of(), ITERATIONS * 2));
+		JwtAuthenticationFilter measured = new JwtAuthenticationFilter(SECRET, List.of(), ITERATIONS * 2);
+
+		long coldNanos = run(tokens, measured); // every token verified once
+		long warmNanos = run(tokens, measured); // every token served from the cache
+
+		log.info("JwtAuthenticationFilter overhead: verify {} us/request, cached {} us/request",
+				String.format("%.1f", coldNanos / 1000.0 / ITERATIONS), String.format("%.1f", warmNanos / 1000.0 / ITERATIONS));
+	}
+
+	private long run(String[] tokens, JwtAuthenticationFilter target) {
+		GatewayFilterChain chain = exchange -> Mono.empty();
+		long start = System.nanoTime();
+		for (String token : tokens) {
+			MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/v1/users/1")
+					.header(HttpHeaders.AUTHORIZATION, "Bearer " + token));
+			target.filter(exchange, chain).block();
+		}
+		return System.nanoTime() - start;
+	}
+}
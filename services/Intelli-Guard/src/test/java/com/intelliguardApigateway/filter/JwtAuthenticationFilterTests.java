@@ -0,0 +1,120 @@
+package com.intelliguardApigateway.filter;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class JwtAuthenticationFilterTests {
+
+	static final String SECRET = "IntelliGuard-Default-Secret-Key-Change-In-Production-Min-256-Bits";
+
+	private final JwtAuthenticationFilter filter =
+			new JwtAuthenticationFilter(SECRET, List.of("/api/v1/auth/**"), 100_000);
+
+	@Test
+	void forwardsVerifiedClaimsAndDropsSpoofedHeaders() {
+		AtomicReference<ServerWebExchange> forwarded = new AtomicReference<>();
+		MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/v1/users/42")
+				.header(HttpHeaders.AUTHORIZATION, "Bearer " + accessToken(42L))
+				.header(JwtAuthenticationFilter.USER_ROLE_HEADER, "ADMIN"));
+
+		filter.filter(exchange, capture(forwarded)).block();
+
+		HttpHeaders headers = forwarded.get().getRequest().getHeaders();
+		assertEquals("42", headers.getFirst(JwtAuthenticationFilter.USER_ID_HEADER));
+		assertEquals("user42@example.com", headers.getFirst(JwtAuthenticationFilter.USER_EMAIL_HEADER));
+		assertEquals("VIEWER", headers.getFirst(JwtAuthenticationFilter.USER_ROLE_HEADER));
+		assertEquals("5", headers.getFirst(JwtAuthenticationFilter.USER_PERMISSIONS_HEADER));
+	}
+
+	@Test
+	void rejectsMissingAndTamperedTokens() {
+		assertEquals(HttpStatus.UNAUTHORIZED, statusFor(null));
+		assertEquals(HttpStatus.UNAUTHORIZED, statusFor(accessToken(42L) + "x"));
+	}
+
+	@Test
+	void rejectsRefreshTokens() {
+		Map<String, Object> claims = new HashMap<>();
+		claims.put("jti", UUID.randomUUID().toString());
+		claims.put("token_type", "refresh");
+
+		assertEquals(HttpStatus.UNAUTHORIZED, statusFor(token("user42@example.com", claims)));
+	}
+
+	@Test
+	void rejectsAccessTokensWithoutUserIdOrRole() {
+		Map<String, Object> noUserId = new HashMap<>(accessClaims(42L));
+		noUserId.remove("userId");
+		Map<String, Object> noRole = new HashMap<>(accessClaims(42L));
+		noRole.remove("role");
+		Map<String, Object> untyped = new HashMap<>(accessClaims(42L));
+		untyped.remove("token_type");
+
+		assertEquals(HttpStatus.UNAUTHORIZED, statusFor(token("user42@example.com", noUserId)));
+		assertEquals(HttpStatus.UNAUTHORIZED, statusFor(token("user42@example.com", noRole)));
+		assertEquals(HttpStatus.UNAUTHORIZED, statusFor(token("user42@example.com", untyped)));
+	}
+
+	@Test
+	void publicPathsSkipVerification() {
+		MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.post("/api/v1/auth/login"));
+		filter.filter(exchange, e -> Mono.empty()).block();
+		assertNull(exchange.getResponse().getStatusCode());
+	}
+
+	private HttpStatus statusFor(String token) {
+		MockServerHttpRequest.BaseBuilder<?> request = MockServerHttpRequest.get("/api/v1/users/42");
+		if (token != null) {
+			request.header(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+		}
+		MockServerWebExchange exchange = MockServerWebExchange.from(request);
+		filter.filter(exchange, e -> Mono.empty()).block();
+		return (HttpStatus) exchange.getResponse().getStatusCode();
+	}
+
+	private static GatewayFilterChain capture(AtomicReference<ServerWebExchange> forwarded) {
+		return exchange -> {
+			forwarded.set(exchange);
+			return Mono.empty();
+		};
+	}
+
+	static String accessToken(Long userId) {
+		return token("user" + userId + "@example.com", accessClaims(userId));
+	}
+
+	private static Map<String, Object> accessClaims(Long userId) {
+		return Map.of("role", "VIEWER", "userId", userId, "perms", 5L, "token_type", "access");
+	}
+
+	private static String token(String subject, Map<String, Object> claims) {
+		Date now = new Date();
+		return Jwts.builder()
+				.claims(claims)
+				.subject(subject)
+				.issuedAt(now)
+				.expiration(new Date(now.getTime() + 3_600_000))
+				.issuer("intelliguard.io")
+				.signWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+				.compact();
+	}
+}
@@ -0,0 +1,88 @@
+package com.intelliguardApigateway.filter;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class MicroCacheGatewayFilterFactoryTests {
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final MicroCacheGatewayFilterFactory factory = new MicroCacheGatewayFilterFactory(meterRegistry, 100, 1024);
+	private final GatewayFilter filter = factory.apply(new MicroCacheGatewayFilterFactory.Config());
+	private final AtomicInteger upstreamCalls = new AtomicInteger();
+
+	@Test
+	void servesRepeatedGetFromCache() {
+		GatewayFilterChain upstream = upstream("private, max-age=5", Duration.ZERO);
+
+		MockServerWebExchange first = get("/api/v1/users/42");
+		filter.filter(first, upstream).block();
+		MockServerWebExchange second = get("/api/v1/users/42");
+		filter.filter(second, upstream).block();
+
+		assertEquals(1, upstreamCalls.get());
+		assertEquals("MISS", first.getResponse().getHeaders().getFirst(MicroCacheGatewayFilterFactory.CACHE_STATUS_HEADER));
+		assertEquals("HIT", second.getResponse().getHeaders().getFirst(MicroCacheGatewayFilterFactory.CACHE_STATUS_HEADER));
+		assertEquals("{\"id\":42}", second.getResponse().getBodyAsString().block());
+		assertEquals(0.5, meterRegistry.get("gateway.microcache.hit.ratio").gauge().value());
+	}
+
+	@Test
+	void coalescesConcurrentIdenticalGets() {
+		GatewayFilterChain upstream = upstream(null, Duration.ofMillis(200));
+
+		MockServerWebExchange first = get("/api/v1/users/42");
+		MockServerWebExchange second = get("/api/v1/users/42");
+		Mono.when(filter.filter(first, upstream), filter.filter(second, upstream)).block();
+
+		assertEquals(1, upstreamCalls.get());
+		assertEquals("COALESCED", second.getResponse().getHeaders().getFirst(MicroCacheGatewayFilterFactory.CACHE_STATUS_HEADER));
+		assertEquals("{\"id\":42}", second.getResponse().getBodyAsString().block());
+	}
+
+	@Test
+	void respectsCacheControl() {
+		GatewayFilterChain noStore = upstream("no-store", Duration.ZERO);
+		filter.filter(get("/api/v1/users/42"), noStore).block();
+		filter.filter(get("/api/v1/users/42"), noStore).block();
+		assertEquals(2, upstreamCalls.get());
+
+		// Clients can force a fresh response, which replaces the cached one
+		GatewayFilterChain cacheable = upstream("max-age=5", Duration.ZERO);
+		filter.filter(get("/api/v1/users/7"), cacheable).block();
+		MockServerWebExchange forced = MockServerWebExchange.from(MockServerHttpRequest.get("/api/v1/users/7")
+				.header(HttpHeaders.CACHE_CONTROL, "no-cache"));
+		filter.filter(forced, cacheable).block();
+		assertEquals(4, upstreamCalls.get());
+	}
+
+	private MockServerWebExchange get(String path) {
+		return MockServerWebExchange.from(MockServerHttpRequest.get(path));
+	}
+
+	private GatewayFilterChain upstream(String cacheControl, Duration latency) {
+		return exchange -> Mono.delay(latency).then(Mono.defer(() -> {
+			upstreamCalls.incrementAndGet();
+			ServerHttpResponse response = exchange.getResponse();
+			response.setStatusCode(HttpStatus.OK);
+			if (cacheControl != null) {
+				response.getHeaders().setCacheControl(cacheControl);
+			}
+			byte[] body = "{\"id\":42}".getBytes(StandardCharsets.UTF_8);
+			return response.writeWith(Mono.just(response.bufferFactory().wrap(body)));
+		}));
+	}
+}
@@ -0,0 +1,60 @@
+package com.intelliguardApigateway.filter;
+
+import com.intelliguardApigateway.ratelimit.HybridRateLimiter;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class RateLimitFilterTests {
+
+	private final HybridRateLimiter limiter =
+			new HybridRateLimiter(null, List.of("/api/v1/auth/login=2/3600"), "/**=1000/60", 250, 100_000);
+
+	@Test
+	void spoofedForwardedForAndApiKeysShareThePeersBucket() {
+		RateLimitFilter filter = new RateLimitFilter(limiter, 0);
+
+		assertNull(login(filter, from("203.0.113.7").header("X-Forwarded-For", "1.1.1.1")));
+		assertNull(login(filter, from("203.0.113.7").header("X-API-Key", "made-up")));
+		assertEquals(HttpStatus.TOO_MANY_REQUESTS,
+				login(filter, from("203.0.113.7").header("X-Forwarded-For", "2.2.2.2").header("X-API-Key", "other")));
+
+		assertNull(login(filter, from("203.0.113.8")));
+	}
+
+	@Test
+	void usesTheHopAppendedByATrustedProxy() {
+		RateLimitFilter filter = new RateLimitFilter(limiter, 1);
+
+		// The client wrote the first entry; the proxy in front of the gateway appended the last one
+		assertEquals("ip:198.51.100.4", filter.identity(MockServerWebExchange.from(from("10.0.0.2")
+				.header("X-Forwarded-For", "1.1.1.1, 198.51.100.4"))));
+		assertEquals("ip:10.0.0.2", filter.identity(MockServerWebExchange.from(from("10.0.0.2"))));
+	}
+
+	@Test
+	void prefersTheVerifiedUserId() {
+		RateLimitFilter filter = new RateLimitFilter(limiter, 0);
+
+		assertEquals("user:42", filter.identity(MockServerWebExchange.from(from("203.0.113.7")
+				.header(JwtAuthenticationFilter.USER_ID_HEADER, "42"))));
+	}
+
+	private static MockServerHttpRequest.BaseBuilder<?> from(String address) {
+		return MockServerHttpRequest.post("/api/v1/auth/login").remoteAddress(new InetSocketAddress(address, 40_000));
+	}
+
+	private static HttpStatus login(RateLimitFilter filter, MockServerHttpRequest.BaseBuilder<?> request) {
+		MockServerWebExchange exchange = MockServerWebExchange.from(request);
+		filter.filter(exchange, e -> Mono.empty()).block();
+		return (HttpStatus) exchange.getResponse().getStatusCode();
+	}
+}
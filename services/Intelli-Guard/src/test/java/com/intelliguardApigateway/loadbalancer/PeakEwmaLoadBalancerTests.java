@@ -0,0 +1,72 @@
+package com.intelliguardApigateway.loadbalancer;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PeakEwmaLoadBalancerTests {
+
+	private final InstanceLatencyStats stats = new InstanceLatencyStats(10_000, 50);
+	private final PeakEwmaLoadBalancer loadBalancer = new PeakEwmaLoadBalancer(null, stats);
+
+	private final ServiceInstance fast = new DefaultServiceInstance("a", "user-service", "10.0.0.1", 8081, false);
+	private final ServiceInstance slow = new DefaultServiceInstance("b", "user-service", "10.0.0.2", 8081, false);
+	private final ServiceInstance fresh = new DefaultServiceInstance("c", "user-service", "10.0.0.3", 8081, false);
+
+	@Test
+	void avoidsInstanceWithLatencySpike() {
+		stats.onStart(fast);
+		stats.onComplete(fast, 5_000_000);
+		stats.onStart(slow);
+		stats.onComplete(slow, 500_000_000);
+
+		for (int i = 0; i < 100; i++) {
+			assertEquals(fast, loadBalancer.choose(List.of(fast, slow)).getServer());
+		}
+	}
+
+	@Test
+	void outstandingRequestsRaiseCost() {
+		stats.onStart(fast);
+		stats.onComplete(fast, 10_000_000);
+		double idle = stats.cost(fast);
+
+		stats.onStart(fast);
+		stats.onStart(fast);
+		assertTrue(stats.cost(fast) > 2 * idle);
+	}
+
+	@Test
+	void spikedInstanceIsTriedAgainOnceItsEstimateDecays() {
+		long start = System.nanoTime();
+		stats.onStart(fast);
+		stats.onComplete(fast, 5_000_000, start);
+		stats.onStart(slow);
+		stats.onComplete(slow, 500_000_000, start);
+		assertTrue(stats.cost(slow, start) > stats.cost(fast, start));
+
+		// A minute without traffic to the slow instance while the fast one keeps answering in 5ms
+		long later = start + 60_000_000_000L;
+		stats.onStart(fast);
+		stats.onComplete(fast, 5_000_000, later);
+		assertTrue(stats.cost(slow, later) < stats.cost(fast, later));
+	}
+
+	@Test
+	void newInstancesStartAtTheDefaultLatency() {
+		long now = System.nanoTime();
+		assertEquals(50_000_000d, stats.cost(fresh, now), 1);
+
+		stats.onStart(fast);
+		stats.onComplete(fast, 5_000_000, now);
+		stats.onStart(slow);
+		stats.onComplete(slow, 500_000_000, now);
+		assertTrue(stats.cost(fast, now) < stats.cost(fresh, now));
+		assertTrue(stats.cost(fresh, now) < stats.cost(slow, now));
+	}
+}
@@ -0,0 +1,80 @@
+package com.intelliguardApigateway.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HybridRateLimiterTests {
+
+	private final HybridRateLimiter limiter = new HybridRateLimiter(null,
+			List.of("/api/v1/auth/login=3/3600", "/api/v1/transactions/batch=100/60"), "/**=1000/60", 250, 100_000);
+
+	@Test
+	void limitsLocallyWithoutRedis() {
+		for (int i = 0; i < 3; i++) {
+			assertTrue(limiter.tryAcquire("/api/v1/auth/login", "ip:1.2.3.4").allowed());
+		}
+		HybridRateLimiter.Decision denied = limiter.tryAcquire("/api/v1/auth/login", "ip:1.2.3.4");
+		assertFalse(denied.allowed());
+		assertEquals(3, denied.limit());
+		assertEquals(0, denied.remaining());
+		assertTrue(denied.retryAfterSeconds() >= 1);
+
+		// Other callers and other rules have their own buckets
+		assertTrue(limiter.tryAcquire("/api/v1/auth/login", "ip:5.6.7.8").allowed());
+		assertEquals(1000, limiter.tryAcquire("/api/v1/users/42", "ip:1.2.3.4").limit());
+	}
+
+	@Test
+	void newCallersShareAnOverflowBucketOnceTheCapIsReached() {
+		HybridRateLimiter capped = new HybridRateLimiter(null, List.of("/api/v1/auth/login=3/3600"), "/**=1000/60", 250, 2);
+		assertTrue(capped.tryAcquire("/api/v1/auth/login", "ip:10.0.0.1").allowed());
+		assertTrue(capped.tryAcquire("/api/v1/auth/login", "ip:10.0.0.2").allowed());
+
+		// Both tracked buckets are in use, so they survive eviction and everyone else is limited together
+		for (int i = 3; i <= 5; i++) {
+			assertTrue(capped.tryAcquire("/api/v1/auth/login", "ip:10.0.0." + i).allowed());
+		}
+		assertFalse(capped.tryAcquire("/api/v1/auth/login", "ip:10.0.0.6").allowed());
+		assertEquals(2, capped.bucketCount());
+
+		// Tracked callers keep their own buckets
+		assertTrue(capped.tryAcquire("/api/v1/auth/login", "ip:10.0.0.1").allowed());
+	}
+
+	@Test
+	void bucketIsFullOnceSyncedAndRefilled() {
+		long start = System.nanoTime();
+		TokenBucket bucket = new TokenBucket(RateLimitRule.parse("/**=1000/60"), start);
+		assertTrue(bucket.isFull(start));
+
+		bucket.tryConsume(start);
+		assertFalse(bucket.isFull(start + 120_000_000_000L)); // consumption not yet pushed to Redis
+		bucket.drainPending();
+		assertFalse(bucket.isFull(start));
+		assertTrue(bucket.isFull(start + 120_000_000_000L));
+	}
+
+	@Test
+	void debitsConsumptionFromOtherReplicas() {
+		TokenBucket bucket = new TokenBucket(RateLimitRule.parse("/api/v1/transactions/batch=100/60"), System.nanoTime());
+		assertTrue(bucket.tryConsume(System.nanoTime()));
+		long delta = bucket.drainPending();
+
+		// Redis reports 40 requests in this window: 1 from here, 39 from elsewhere
+		bucket.applyGlobal(7, 40, delta);
+		assertEquals(60, bucket.remaining());
+	}
+
+	@Test
+	void parsesRules() {
+		RateLimitRule rule = RateLimitRule.parse("/api/v1/transactions/batch=100/60");
+		assertEquals("/api/v1/transactions/batch", rule.pattern());
+		assertEquals(100, rule.limit());
+		assertEquals(60, rule.windowSeconds());
+	}
+}
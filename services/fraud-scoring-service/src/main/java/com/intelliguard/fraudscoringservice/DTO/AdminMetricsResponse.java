@@ -0,0 +1,58 @@
+package com.intelliguard.fraudscoringservice.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AdminMetricsResponse {
+
+    private Instant timestamp;
+    private Instant windowStart;
+    private TransactionMetrics transactionMetrics;
+    private FraudMetrics fraudMetrics;
+    private Percentiles latencyMillis; // produce-to-decision
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class TransactionMetrics {
+        private long totalTransactions24h;
+        private double avgTransactionsPerSecond;
+        private long peakTransactionsPerSecond;
+        private long distinctUsers24h; // HyperLogLog estimate, ~1.6% standard error
+        private long distinctDevices24h;
+        private Percentiles amount;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class FraudMetrics {
+        private double avgRiskScore;
+        private long blockedTransactions24h;
+        private long reviewTransactions24h;
+        private long allowedTransactions24h;
+        private double blockRate;
+        private double reviewRate;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Percentiles {
+        private double p50;
+        private double p95;
+        private double p99;
+        private double max;
+    }
+}
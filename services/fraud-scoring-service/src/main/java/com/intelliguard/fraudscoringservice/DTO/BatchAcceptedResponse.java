@@ -0,0 +1,20 @@
+package com.intelliguard.fraudscoringservice.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchAcceptedResponse {
+
+    private String batchId;
+    private int totalTransactions;
+    private int acceptedTransactions;
+    private int rejectedTransactions; // failed validation or refused under backpressure
+    private int duplicateTransactions; // transactionId already ingested
+    private String status; // PROCESSING
+}
@@ -0,0 +1,23 @@
+package com.intelliguard.fraudscoringservice.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FraudDecision {
+
+    public enum Decision { ALLOW, REVIEW, BLOCK }
+
+    private String transactionId;
+    private String userId;
+    private Decision decision;
+    private int riskScore; // 0-100
+    private List<String> reasonCodes;
+}
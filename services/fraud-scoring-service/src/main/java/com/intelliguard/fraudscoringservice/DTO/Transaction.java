@@ -1,5 +1,9 @@
 package com.intelliguard.fraudscoringservice.DTO;
 
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
 import lombok.*;
 
 import java.time.LocalDateTime;
@@ -10,10 +14,23 @@ import java.time.LocalDateTime;
 @Getter
 @Setter
 public class Transaction {
+    @NotBlank(message = "transactionId is required")
+    @Size(max = 64, message = "transactionId must not exceed 64 characters")
     private String transactionId;
+
+    @NotBlank(message = "userId is required")
+    @Size(max = 64, message = "userId must not exceed 64 characters")
     private String userId;
+
+    @Positive(message = "Amount must be greater than 0")
+    @DecimalMax(value = "1000000000", message = "Amount is too large")
     private double amount;
+
+    @Size(max = 128, message = "location must not exceed 128 characters")
     private String location;
+
+    @Size(max = 128, message = "deviceId must not exceed 128 characters")
     private String deviceId;
+
     LocalDateTime timestamp;
 }
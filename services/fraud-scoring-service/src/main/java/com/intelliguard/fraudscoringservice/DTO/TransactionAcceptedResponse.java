@@ -0,0 +1,18 @@
+package com.intelliguard.fraudscoringservice.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransactionAcceptedResponse {
+
+    private String transactionId;
+    private String status; // PROCESSING
+    private String message;
+    private String estimatedProcessingTime;
+}
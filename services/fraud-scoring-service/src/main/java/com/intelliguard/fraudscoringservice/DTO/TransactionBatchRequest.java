@@ -0,0 +1,20 @@
+package com.intelliguard.fraudscoringservice.DTO;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransactionBatchRequest {
+
+    // Items are validated one by one so a bad row only rejects itself
+    @NotEmpty(message = "transactions must not be empty")
+    @Size(max = 1000, message = "A batch may contain at most 1000 transactions")
+    private List<Transaction> transactions;
+}
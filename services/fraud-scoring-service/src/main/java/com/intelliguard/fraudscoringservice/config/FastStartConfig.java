@@ -0,0 +1,27 @@
+package com.intelliguard.fraudscoringservice.config;
+
+import com.intelliguard.fraudscoringservice.controller.KafkaPaymentConsumer;
+import com.intelliguard.fraudscoringservice.controller.TransactionController;
+import com.intelliguard.fraudscoringservice.metrics.StreamingMetrics;
+import com.intelliguard.fraudscoringservice.service.FraudScorer;
+import com.intelliguard.fraudscoringservice.service.TransactionIngestionService;
+import com.intelliguard.fraudscoringservice.startup.StartupWarmup;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class FastStartConfig {
+
+    /**
+     * Beans on the transaction hot path are created eagerly even when lazy initialization is on
+     * (fast-start profile), so the first request or record does not pay for their wiring.
+     * The Kafka listener must also be eager for its endpoint to be registered at all.
+     */
+    @Bean
+    static LazyInitializationExcludeFilter hotPathBeans() {
+        return LazyInitializationExcludeFilter.forBeanTypes(KafkaPaymentConsumer.class, FraudScorer.class,
+                TransactionController.class, TransactionIngestionService.class, StartupWarmup.class,
+                StreamingMetrics.class);
+    }
+}
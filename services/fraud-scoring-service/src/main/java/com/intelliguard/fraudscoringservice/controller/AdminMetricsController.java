@@ -0,0 +1,40 @@
+package com.intelliguard.fraudscoringservice.controller;
+
+import com.intelliguard.fraudscoringservice.DTO.AdminMetricsResponse;
+import com.intelliguard.fraudscoringservice.metrics.StreamingMetrics;
+import com.intelliguard.fraudscoringservice.metrics.WindowAggregate;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/admin/metrics")
+public class AdminMetricsController {
+
+    private final StreamingMetrics streamingMetrics;
+
+    public AdminMetricsController(StreamingMetrics streamingMetrics) {
+        this.streamingMetrics = streamingMetrics;
+    }
+
+    // Served from the last published snapshot; never touches the decisions table
+    @GetMapping
+    public AdminMetricsResponse getMetrics() {
+        return streamingMetrics.snapshot();
+    }
+
+    // Raw sketches of this instance's window, for merging across instances
+    @GetMapping("/sketch")
+    public WindowAggregate.Exported getSketch() {
+        return streamingMetrics.export();
+    }
+
+    @PostMapping("/merge")
+    public AdminMetricsResponse merge(@RequestBody List<WindowAggregate.Exported> sketches) {
+        return streamingMetrics.combine(sketches);
+    }
+}
@@ -1,15 +1,42 @@
 package com.intelliguard.fraudscoringservice.controller;
 
+import com.intelliguard.fraudscoringservice.DTO.FraudDecision;
 import com.intelliguard.fraudscoringservice.DTO.Transaction;
+import com.intelliguard.fraudscoringservice.metrics.StreamingMetrics;
+import com.intelliguard.fraudscoringservice.service.FraudScorer;
+import com.intelliguard.fraudscoringservice.startup.StartupReport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.handler.annotation.Header;
 import org.springframework.stereotype.Component;
 
 @Component
 public class KafkaPaymentConsumer {
-    @KafkaListener(topics = "pending-payment-pool", groupId = "fraud-group")
-    public void consumePendingPayment(Transaction transaction) {
-        System.out.println("##---------------------------------------------------------------------------##");
-        System.out.println(transaction);
-        System.out.println("##---------------------------------------------------------------------------##");
+
+    public static final String LISTENER_ID = "pending-payment-listener";
+
+    private static final Logger log = LoggerFactory.getLogger(KafkaPaymentConsumer.class);
+
+    private final FraudScorer fraudScorer;
+    private final StartupReport startupReport;
+    private final StreamingMetrics streamingMetrics;
+
+    public KafkaPaymentConsumer(FraudScorer fraudScorer, StartupReport startupReport, StreamingMetrics streamingMetrics) {
+        this.fraudScorer = fraudScorer;
+        this.startupReport = startupReport;
+        this.streamingMetrics = streamingMetrics;
+    }
+
+    // Fast-start mode defers startup until the warm-up has run (see StartupWarmup)
+    @KafkaListener(id = LISTENER_ID, topics = "${fraud.ingestion.topic:pending-payment-pool}", groupId = "fraud-group",
+            autoStartup = "${fraud.startup.listener-auto-startup:true}")
+    public void consumePendingPayment(Transaction transaction,
+                                      @Header(KafkaHeaders.RECEIVED_TIMESTAMP) long producedAt) {
+        FraudDecision decision = fraudScorer.score(transaction);
+        startupReport.onDecision();
+        streamingMetrics.record(transaction, decision, System.currentTimeMillis() - producedAt);
+        log.debug("Decision for transaction {}: {}", transaction.getTransactionId(), decision);
     }
 }
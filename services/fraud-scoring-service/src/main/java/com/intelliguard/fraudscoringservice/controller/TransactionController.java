@@ -0,0 +1,63 @@
+package com.intelliguard.fraudscoringservice.controller;
+
+import com.intelliguard.fraudscoringservice.DTO.BatchAcceptedResponse;
+import com.intelliguard.fraudscoringservice.DTO.Transaction;
+import com.intelliguard.fraudscoringservice.DTO.TransactionAcceptedResponse;
+import com.intelliguard.fraudscoringservice.DTO.TransactionBatchRequest;
+import com.intelliguard.fraudscoringservice.service.TransactionIngestionService;
+import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ProblemDetail;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.net.URI;
+
+@RestController
+@RequestMapping("/api/v1/transactions")
+public class TransactionController {
+
+    private final TransactionIngestionService ingestionService;
+
+    public TransactionController(TransactionIngestionService ingestionService) {
+        this.ingestionService = ingestionService;
+    }
+
+    @PostMapping
+    public ResponseEntity<?> ingest(@Valid @RequestBody Transaction transaction) {
+        if (ingestionService.ingest(transaction) == TransactionIngestionService.Outcome.DUPLICATE) {
+            ProblemDetail problem = ProblemDetail.forStatusAndDetail(HttpStatus.CONFLICT,
+                    "Transaction " + transaction.getTransactionId() + " has already been accepted");
+            problem.setType(URI.create("https://api.intelliguard.io/errors/duplicate-transaction"));
+            problem.setTitle("Duplicate Transaction");
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(problem);
+        }
+        TransactionAcceptedResponse response = TransactionAcceptedResponse.builder()
+                .transactionId(transaction.getTransactionId())
+                .status("PROCESSING")
+                .message("Transaction accepted for fraud analysis")
+                .estimatedProcessingTime("100ms")
+                .build();
+        return ResponseEntity.accepted().body(response);
+    }
+
+    @PostMapping("/batch")
+    public ResponseEntity<BatchAcceptedResponse> ingestBatch(@Valid @RequestBody TransactionBatchRequest request) {
+        return ResponseEntity.accepted().body(ingestionService.ingestBatch(request.getTransactions()));
+    }
+
+    @ExceptionHandler(TransactionIngestionService.BackpressureException.class)
+    public ResponseEntity<ProblemDetail> handleBackpressure(TransactionIngestionService.BackpressureException e) {
+        ProblemDetail problem = ProblemDetail.forStatusAndDetail(HttpStatus.SERVICE_UNAVAILABLE, e.getMessage());
+        problem.setType(URI.create("https://api.intelliguard.io/errors/service-unavailable"));
+        problem.setTitle("Ingestion Backpressure");
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(problem);
+    }
+}
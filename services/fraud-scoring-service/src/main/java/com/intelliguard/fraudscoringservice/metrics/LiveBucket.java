@@ -0,0 +1,86 @@
+package com.intelliguard.fraudscoringservice.metrics;
+
+import com.intelliguard.fraudscoringservice.DTO.FraudDecision;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The bucket currently receiving decisions. Every structure here takes concurrent writes
+ * without locking; {@link #freeze()} turns it into a compact {@link WindowAggregate}.
+ */
+final class LiveBucket {
+
+    final long startMillis;
+    final long endMillis;
+
+    private final LongAdder total = new LongAdder();
+    private final LongAdder allowed = new LongAdder();
+    private final LongAdder reviewed = new LongAdder();
+    private final LongAdder blocked = new LongAdder();
+    private final LongAdder riskScoreSum = new LongAdder();
+    private final AtomicIntegerArray perSecond;
+    private final HyperLogLog users;
+    private final HyperLogLog devices;
+    private final ConcurrentHistogram amountCents =
+            new ConcurrentHistogram(WindowAggregate.MAX_AMOUNT_CENTS, WindowAggregate.SIGNIFICANT_DIGITS);
+    private final ConcurrentHistogram latencyMillis =
+            new ConcurrentHistogram(WindowAggregate.MAX_LATENCY_MILLIS, WindowAggregate.SIGNIFICANT_DIGITS);
+
+    LiveBucket(long startMillis, long endMillis, int hllPrecision) {
+        this.startMillis = startMillis;
+        this.endMillis = endMillis;
+        this.perSecond = new AtomicIntegerArray((int) Math.max(1, (endMillis - startMillis + 999) / 1000));
+        this.users = new HyperLogLog(hllPrecision);
+        this.devices = new HyperLogLog(hllPrecision);
+    }
+
+    void record(long nowMillis, String userId, String deviceId, double amount, FraudDecision decision, long latency) {
+        total.increment();
+        switch (decision.getDecision()) {
+            case ALLOW -> allowed.increment();
+            case REVIEW -> reviewed.increment();
+            case BLOCK -> blocked.increment();
+        }
+        riskScoreSum.add(decision.getRiskScore());
+        // Late writers after a rotation land in the last second rather than out of bounds
+        int second = (int) Math.min(Math.max(0, (nowMillis - startMillis) / 1000), perSecond.length() - 1);
+        perSecond.incrementAndGet(second);
+
+        if (userId != null) {
+            users.offer(userId);
+        }
+        if (deviceId != null) {
+            devices.offer(deviceId);
+        }
+        amountCents.recordValue(Math.min(Math.max(0, Math.round(amount * 100)), WindowAggregate.MAX_AMOUNT_CENTS));
+        if (latency >= 0) {
+            latencyMillis.recordValue(Math.min(latency, WindowAggregate.MAX_LATENCY_MILLIS));
+        }
+    }
+
+    WindowAggregate freeze() {
+        WindowAggregate aggregate = new WindowAggregate(startMillis, endMillis, users.copy(), devices.copy(),
+                snapshot(amountCents), snapshot(latencyMillis));
+        aggregate.total = total.sum();
+        aggregate.allowed = allowed.sum();
+        aggregate.reviewed = reviewed.sum();
+        aggregate.blocked = blocked.sum();
+        aggregate.riskScoreSum = riskScoreSum.sum();
+        long peak = 0;
+        for (int i = 0; i < perSecond.length(); i++) {
+            peak = Math.max(peak, perSecond.get(i));
+        }
+        aggregate.peakPerSecond = peak;
+        return aggregate;
+    }
+
+    private static Histogram snapshot(ConcurrentHistogram live) {
+        // The copy constructor only takes the range settings, so add the counts explicitly
+        Histogram histogram = new Histogram(live);
+        histogram.add(live);
+        return histogram;
+    }
+}
@@ -0,0 +1,170 @@
+package com.intelliguard.fraudscoringservice.metrics;
+
+import com.intelliguard.fraudscoringservice.DTO.AdminMetricsResponse;
+import com.intelliguard.fraudscoringservice.DTO.FraudDecision;
+import com.intelliguard.fraudscoringservice.DTO.Transaction;
+import org.HdrHistogram.Histogram;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rolling window (24 hours by default) of fraud scoring aggregates, kept as fixed-length
+ * buckets so old traffic can expire even though sketches cannot subtract. Decisions are recorded
+ * lock-free into the live bucket; a scheduled refresh rotates buckets and publishes an immutable
+ * snapshot, so reading the metrics costs the same regardless of traffic volume.
+ * <p>
+ * Memory is bounded by the bucket count: each closed bucket holds two HyperLogLogs and two HDR
+ * histograms, roughly 60 KB, so the default 10 minute buckets cost under 10 MB for 24 hours.
+ */
+@Component
+public class StreamingMetrics {
+
+    private final long bucketMillis;
+    private final long windowMillis;
+    private final int hllPrecision;
+
+    private volatile LiveBucket live;
+
+    // Owned by the refresh thread
+    private LiveBucket retiring;
+    private final Deque<WindowAggregate> closed = new ArrayDeque<>();
+    private WindowAggregate closedTotal;
+
+    private volatile WindowAggregate current;
+    private volatile AdminMetricsResponse snapshot;
+
+    public StreamingMetrics(@Value("${fraud.metrics.bucket-minutes:10}") long bucketMinutes,
+                            @Value("${fraud.metrics.window-hours:24}") long windowHours,
+                            @Value("${fraud.metrics.hll-precision:12}") int hllPrecision) {
+        this.bucketMillis = TimeUnit.MINUTES.toMillis(bucketMinutes);
+        this.windowMillis = TimeUnit.HOURS.toMillis(windowHours);
+        this.hllPrecision = hllPrecision;
+
+        long now = System.currentTimeMillis();
+        this.live = newBucket(now);
+        this.closedTotal = WindowAggregate.empty(live.startMillis, live.startMillis, hllPrecision);
+        refresh();
+    }
+
+    public void record(Transaction transaction, FraudDecision decision, long latencyMillis) {
+        live.record(System.currentTimeMillis(), transaction.getUserId(), transaction.getDeviceId(),
+                transaction.getAmount(), decision, latencyMillis);
+    }
+
+    public AdminMetricsResponse snapshot() {
+        return snapshot;
+    }
+
+    /**
+     * This instance's window as of the last refresh, for merging with other instances.
+     */
+    public WindowAggregate.Exported export() {
+        return current.export();
+    }
+
+    /**
+     * Metrics for the union of several instances' exported windows.
+     */
+    public AdminMetricsResponse combine(List<WindowAggregate.Exported> exported) {
+        WindowAggregate merged = WindowAggregate.empty(Long.MAX_VALUE, Long.MIN_VALUE, hllPrecision);
+        for (WindowAggregate.Exported instance : exported) {
+            merged.merge(WindowAggregate.fromExported(instance));
+        }
+        return summarize(merged, System.currentTimeMillis());
+    }
+
+    @Scheduled(fixedDelayString = "${fraud.metrics.refresh-interval-ms:1000}")
+    public synchronized void refresh() {
+        long now = System.currentTimeMillis();
+        boolean rebuild = false;
+
+        // Freeze the bucket retired on the previous refresh, once writers still holding it are done
+        if (retiring != null) {
+            closed.addLast(retiring.freeze());
+            retiring = null;
+            rebuild = true;
+        }
+        if (now >= live.endMillis) {
+            retiring = live;
+            live = newBucket(now);
+        }
+        while (!closed.isEmpty() && closed.peekFirst().endMillis <= now - windowMillis) {
+            closed.removeFirst();
+            rebuild = true;
+        }
+        if (rebuild) {
+            WindowAggregate total = WindowAggregate.empty(live.startMillis, live.startMillis, hllPrecision);
+            for (WindowAggregate bucket : closed) {
+                total.merge(bucket);
+            }
+            closedTotal = total;
+        }
+
+        WindowAggregate window = closedTotal.copy();
+        if (retiring != null) {
+            window.merge(retiring.freeze());
+        }
+        window.merge(live.freeze());
+        current = window;
+        snapshot = summarize(window, now);
+    }
+
+    private LiveBucket newBucket(long now) {
+        long start = now - now % bucketMillis;
+        return new LiveBucket(start, start + bucketMillis, hllPrecision);
+    }
+
+    private AdminMetricsResponse summarize(WindowAggregate window, long now) {
+        long windowStart = Math.max(window.startMillis, now - windowMillis);
+        double seconds = Math.max(1, (now - windowStart) / 1000.0);
+        long total = window.total;
+
+        AdminMetricsResponse.TransactionMetrics transactionMetrics = AdminMetricsResponse.TransactionMetrics.builder()
+                .totalTransactions24h(total)
+                .avgTransactionsPerSecond(round(total / seconds))
+                .peakTransactionsPerSecond(window.peakPerSecond)
+                .distinctUsers24h(window.users.estimate())
+                .distinctDevices24h(window.devices.estimate())
+                .amount(percentiles(window.amountCents, 0.01))
+                .build();
+        AdminMetricsResponse.FraudMetrics fraudMetrics = AdminMetricsResponse.FraudMetrics.builder()
+                .avgRiskScore(total == 0 ? 0 : round((double) window.riskScoreSum / total))
+                .blockedTransactions24h(window.blocked)
+                .reviewTransactions24h(window.reviewed)
+                .allowedTransactions24h(window.allowed)
+                .blockRate(total == 0 ? 0 : round((double) window.blocked / total))
+                .reviewRate(total == 0 ? 0 : round((double) window.reviewed / total))
+                .build();
+
+        return AdminMetricsResponse.builder()
+                .timestamp(Instant.ofEpochMilli(now))
+                .windowStart(Instant.ofEpochMilli(windowStart))
+                .transactionMetrics(transactionMetrics)
+                .fraudMetrics(fraudMetrics)
+                .latencyMillis(percentiles(window.latencyMillis, 1))
+                .build();
+    }
+
+    private static AdminMetricsResponse.Percentiles percentiles(Histogram histogram, double scale) {
+        if (histogram.getTotalCount() == 0) {
+            return AdminMetricsResponse.Percentiles.builder().build();
+        }
+        return AdminMetricsResponse.Percentiles.builder()
+                .p50(round(histogram.getValueAtPercentile(50) * scale))
+                .p95(round(histogram.getValueAtPercentile(95) * scale))
+                .p99(round(histogram.getValueAtPercentile(99) * scale))
+                .max(round(histogram.getMaxValue() * scale))
+                .build();
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 10_000) / 10_000.0;
+    }
+}
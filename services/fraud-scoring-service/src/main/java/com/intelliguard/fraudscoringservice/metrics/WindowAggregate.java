@@ -0,0 +1,128 @@
+package com.intelliguard.fraudscoringservice.metrics;
+
+import org.HdrHistogram.Histogram;
+
+import java.nio.ByteBuffer;
+import java.util.Base64;
+import java.util.zip.DataFormatException;
+
+/**
+ * Mergeable summary of the transactions scored in some time range: counters, HyperLogLog
+ * sketches of distinct users and devices, and HDR histograms of amounts (cents) and
+ * produce-to-decision latency (milliseconds). Merging two aggregates gives the aggregate of the
+ * combined traffic, whether they cover adjacent buckets or the same window on different instances.
+ * Not thread-safe; live traffic is recorded into {@link LiveBucket} and frozen into one of these.
+ */
+public final class WindowAggregate {
+
+    static final long MAX_AMOUNT_CENTS = 100_000_000_000L;
+    static final long MAX_LATENCY_MILLIS = 3_600_000L;
+    static final int SIGNIFICANT_DIGITS = 2;
+
+    long startMillis;
+    long endMillis;
+    long total;
+    long allowed;
+    long reviewed;
+    long blocked;
+    long riskScoreSum;
+    long peakPerSecond;
+    final HyperLogLog users;
+    final HyperLogLog devices;
+    final Histogram amountCents;
+    final Histogram latencyMillis;
+
+    WindowAggregate(long startMillis, long endMillis, HyperLogLog users, HyperLogLog devices,
+                    Histogram amountCents, Histogram latencyMillis) {
+        this.startMillis = startMillis;
+        this.endMillis = endMillis;
+        this.users = users;
+        this.devices = devices;
+        this.amountCents = amountCents;
+        this.latencyMillis = latencyMillis;
+    }
+
+    public static WindowAggregate empty(long startMillis, long endMillis, int hllPrecision) {
+        return new WindowAggregate(startMillis, endMillis, new HyperLogLog(hllPrecision), new HyperLogLog(hllPrecision),
+                new Histogram(MAX_AMOUNT_CENTS, SIGNIFICANT_DIGITS), new Histogram(MAX_LATENCY_MILLIS, SIGNIFICANT_DIGITS));
+    }
+
+    /**
+     * Folds {@code other} into this aggregate and returns this.
+     */
+    public WindowAggregate merge(WindowAggregate other) {
+        startMillis = Math.min(startMillis, other.startMillis);
+        endMillis = Math.max(endMillis, other.endMillis);
+        total += other.total;
+        allowed += other.allowed;
+        reviewed += other.reviewed;
+        blocked += other.blocked;
+        riskScoreSum += other.riskScoreSum;
+        // Peaks of different instances in the same second would add up; the max is a lower bound
+        peakPerSecond = Math.max(peakPerSecond, other.peakPerSecond);
+        users.merge(other.users);
+        devices.merge(other.devices);
+        amountCents.add(other.amountCents);
+        latencyMillis.add(other.latencyMillis);
+        return this;
+    }
+
+    public WindowAggregate copy() {
+        WindowAggregate copy = new WindowAggregate(startMillis, endMillis, users.copy(), devices.copy(),
+                amountCents.copy(), latencyMillis.copy());
+        copy.total = total;
+        copy.allowed = allowed;
+        copy.reviewed = reviewed;
+        copy.blocked = blocked;
+        copy.riskScoreSum = riskScoreSum;
+        copy.peakPerSecond = peakPerSecond;
+        return copy;
+    }
+
+    /**
+     * Portable form for shipping an instance's aggregate to whatever merges them.
+     */
+    public record Exported(long startMillis, long endMillis, long total, long allowed, long reviewed, long blocked,
+                           long riskScoreSum, long peakPerSecond, String users, String devices,
+                           String amountCents, String latencyMillis) {
+    }
+
+    public Exported export() {
+        Base64.Encoder base64 = Base64.getEncoder();
+        return new Exported(startMillis, endMillis, total, allowed, reviewed, blocked, riskScoreSum, peakPerSecond,
+                base64.encodeToString(users.toBytes()), base64.encodeToString(devices.toBytes()),
+                base64.encodeToString(encode(amountCents)), base64.encodeToString(encode(latencyMillis)));
+    }
+
+    public static WindowAggregate fromExported(Exported exported) {
+        Base64.Decoder base64 = Base64.getDecoder();
+        WindowAggregate aggregate = new WindowAggregate(exported.startMillis(), exported.endMillis(),
+                HyperLogLog.fromBytes(base64.decode(exported.users())),
+                HyperLogLog.fromBytes(base64.decode(exported.devices())),
+                decode(base64.decode(exported.amountCents())), decode(base64.decode(exported.latencyMillis())));
+        aggregate.total = exported.total();
+        aggregate.allowed = exported.allowed();
+        aggregate.reviewed = exported.reviewed();
+        aggregate.blocked = exported.blocked();
+        aggregate.riskScoreSum = exported.riskScoreSum();
+        aggregate.peakPerSecond = exported.peakPerSecond();
+        return aggregate;
+    }
+
+    private static byte[] encode(Histogram histogram) {
+        ByteBuffer buffer = ByteBuffer.allocate(histogram.getNeededByteBufferCapacity());
+        int length = histogram.encodeIntoCompressedByteBuffer(buffer);
+        byte[] bytes = new byte[length];
+        buffer.flip();
+        buffer.get(bytes);
+        return bytes;
+    }
+
+    private static Histogram decode(byte[] bytes) {
+        try {
+            return Histogram.decodeFromCompressedByteBuffer(ByteBuffer.wrap(bytes), 0);
+        } catch (DataFormatException e) {
+            throw new IllegalArgumentException("Not a serialized histogram", e);
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.intelliguard.fraudscoringservice.service;
+
+import com.intelliguard.fraudscoringservice.DTO.FraudDecision;
+import com.intelliguard.fraudscoringservice.DTO.Transaction;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rule-based scoring (threshold and velocity rules from the architecture document) with the
+ * document's decision thresholds: 80+ blocks, 50+ goes to review. Velocity state is kept in memory
+ * as the last few transaction times per user, which is exact as long as each user's transactions
+ * arrive on one partition (they are keyed by user id).
+ */
+@Service
+public class FraudScorer {
+
+    public static final String HIGH_AMOUNT = "HIGH_AMOUNT";
+    public static final String HIGH_VELOCITY = "HIGH_VELOCITY";
+
+    private final double highAmount;
+    private final int velocityLimit;
+    private final long velocityWindowMillis;
+
+    private final Map<String, RecentTransactions> recentByUser = new ConcurrentHashMap<>();
+
+    public FraudScorer(@Value("${fraud.rules.high-amount:10000}") double highAmount,
+                       @Value("${fraud.rules.velocity-limit:5}") int velocityLimit,
+                       @Value("${fraud.rules.velocity-window-minutes:10}") long velocityWindowMinutes) {
+        this.highAmount = highAmount;
+        this.velocityLimit = velocityLimit;
+        this.velocityWindowMillis = TimeUnit.MINUTES.toMillis(velocityWindowMinutes);
+    }
+
+    public FraudDecision score(Transaction transaction) {
+        long at = transaction.getTimestamp() == null
+                ? System.currentTimeMillis()
+                : transaction.getTimestamp().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+
+        int score = 0;
+        List<String> reasons = new ArrayList<>(2);
+        if (transaction.getAmount() > highAmount) {
+            score += 60;
+            reasons.add(HIGH_AMOUNT);
+        }
+        RecentTransactions recent = recentByUser.computeIfAbsent(transaction.getUserId(),
+                id -> new RecentTransactions(velocityLimit + 1));
+        if (recent.recordAndCount(at, velocityWindowMillis) > velocityLimit) {
+            score += 30;
+            reasons.add(HIGH_VELOCITY);
+        }
+
+        FraudDecision.Decision decision = score >= 80 ? FraudDecision.Decision.BLOCK
+                : score >= 50 ? FraudDecision.Decision.REVIEW
+                : FraudDecision.Decision.ALLOW;
+        return FraudDecision.builder()
+                .transactionId(transaction.getTransactionId())
+                .userId(transaction.getUserId())
+                .decision(decision)
+                .riskScore(Math.min(score, 100))
+                .reasonCodes(reasons)
+                .build();
+    }
+
+    /**
+     * Drops velocity state, e.g. after a synthetic warm-up.
+     */
+    public void clearState() {
+        recentByUser.clear();
+    }
+
+    @Scheduled(fixedDelayString = "${fraud.rules.velocity-sweep-interval-ms:60000}")
+    public void evictIdleUsers() {
+        long cutoff = System.currentTimeMillis() - velocityWindowMillis;
+        recentByUser.values().removeIf(recent -> recent.latest() < cutoff);
+    }
+
+    /**
+     * Ring of the last {@code capacity} transaction times of one user.
+     */
+    private static final class RecentTransactions {
+        private final long[] times;
+        private int next;
+
+        private RecentTransactions(int capacity) {
+            times = new long[capacity];
+        }
+
+        synchronized int recordAndCount(long at, long windowMillis) {
+            times[next] = at;
+            next = (next + 1) % times.length;
+            int count = 0;
+            for (long time : times) {
+                if (time != 0 && time > at - windowMillis && time <= at) {
+                    count++;
+                }
+            }
+            return count;
+        }
+
+        synchronized long latest() {
+            return times[(next - 1 + times.length) % times.length];
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.intelliguard.fraudscoringservice.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Claims transaction ids in Redis ({@code SET NX EX}) so a transaction is produced to Kafka at most
+ * once per retention window, whichever instance receives it. Batches are claimed in one pipelined
+ * round trip. If Redis is unavailable the guard fails open: accepting a possible duplicate is
+ * preferable to dropping payments, and the consumer keys its decisions by transaction id.
+ */
+@Component
+public class IdempotencyGuard {
+
+    private static final String KEY_PREFIX = "txn:idem:";
+
+    private final StringRedisTemplate redisTemplate;
+    private final Duration retention;
+
+    public IdempotencyGuard(StringRedisTemplate redisTemplate,
+                            @Value("${fraud.ingestion.idempotency-ttl-hours:24}") long retentionHours) {
+        this.redisTemplate = redisTemplate;
+        this.retention = Duration.ofHours(retentionHours);
+    }
+
+    /**
+     * @return true if this call claimed the id, false if it was already ingested
+     */
+    public boolean claim(String transactionId) {
+        try {
+            Boolean claimed = redisTemplate.opsForValue().setIfAbsent(KEY_PREFIX + transactionId, "1", retention);
+            return !Boolean.FALSE.equals(claimed);
+        } catch (DataAccessException e) {
+            return true;
+        }
+    }
+
+    /**
+     * Claims every id in one pipeline; the result list is aligned with the input.
+     */
+    public List<Boolean> claimAll(List<String> transactionIds) {
+        try {
+            List<Object> results = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                StringRedisConnection strings = (StringRedisConnection) connection;
+                for (String transactionId : transactionIds) {
+                    strings.set(KEY_PREFIX + transactionId, "1", Expiration.from(retention),
+                            RedisStringCommands.SetOption.SET_IF_ABSENT);
+                }
+                return null;
+            });
+            List<Boolean> claimed = new ArrayList<>(results.size());
+            for (Object result : results) {
+                claimed.add(!Boolean.FALSE.equals(result));
+            }
+            return claimed;
+        } catch (DataAccessException e) {
+            return transactionIds.stream().map(id -> Boolean.TRUE).toList();
+        }
+    }
+
+    /**
+     * Gives an id back when its record could not be produced, so the client's retry is accepted.
+     */
+    public void release(String transactionId) {
+        try {
+            redisTemplate.delete(KEY_PREFIX + transactionId);
+        } catch (DataAccessException e) {
+            // Key expires with the retention window
+        }
+    }
+}
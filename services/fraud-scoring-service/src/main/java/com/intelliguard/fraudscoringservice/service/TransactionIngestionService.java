@@ -0,0 +1,222 @@
+package com.intelliguard.fraudscoringservice.service;
+
+import com.intelliguard.fraudscoringservice.DTO.BatchAcceptedResponse;
+import com.intelliguard.fraudscoringservice.DTO.Transaction;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.kafka.KafkaException;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Validates transactions, claims their ids for idempotency and produces them to the pending
+ * payment topic keyed by user id, so one user's transactions stay ordered on one partition.
+ * <p>
+ * Requests are acknowledged once the record is in the producer's buffer; the broker ack arrives
+ * asynchronously. At most {@code fraud.ingestion.max-in-flight} records may be awaiting an ack, and
+ * the producer may block for at most {@code max.block.ms} when its buffer is full. Past either
+ * limit the request is refused with {@link BackpressureException} instead of queueing without bound.
+ */
+@Service
+public class TransactionIngestionService {
+
+    private static final Logger log = LoggerFactory.getLogger(TransactionIngestionService.class);
+
+    private static final int METADATA_ATTEMPTS = 200;
+
+    public enum Outcome { ACCEPTED, DUPLICATE }
+
+    public static class BackpressureException extends RuntimeException {
+        public BackpressureException(String message) {
+            super(message);
+        }
+    }
+
+    private final KafkaTemplate<String, Transaction> kafkaTemplate;
+    private final IdempotencyGuard idempotencyGuard;
+    private final Validator validator;
+    private final String topic;
+    private final Semaphore inFlight;
+
+    private final Counter accepted;
+    private final Counter duplicates;
+    private final Counter rejected;
+    private final Counter throttled;
+    private final Counter failed;
+
+    public TransactionIngestionService(KafkaTemplate<String, Transaction> kafkaTemplate,
+                                       IdempotencyGuard idempotencyGuard,
+                                       Validator validator,
+                                       MeterRegistry meterRegistry,
+                                       @Value("${fraud.ingestion.topic:pending-payment-pool}") String topic,
+                                       @Value("${fraud.ingestion.max-in-flight:100000}") int maxInFlight) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.idempotencyGuard = idempotencyGuard;
+        this.validator = validator;
+        this.topic = topic;
+        this.inFlight = new Semaphore(maxInFlight);
+
+        accepted = counter(meterRegistry, "accepted");
+        duplicates = counter(meterRegistry, "duplicate");
+        rejected = counter(meterRegistry, "rejected");
+        throttled = counter(meterRegistry, "throttled");
+        failed = counter(meterRegistry, "failed");
+        Gauge.builder("fraud.ingestion.in.flight", inFlight, semaphore -> maxInFlight - semaphore.availablePermits())
+                .register(meterRegistry);
+    }
+
+    /**
+     * Loads the topic's partition metadata before traffic arrives. The first send would otherwise
+     * have to fetch it within {@code max.block.ms}, which is deliberately too short for that.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void prefetchTopicMetadataInBackground() {
+        // Off the main thread so a slow broker does not hold up other ready listeners (e.g. the warm-up)
+        Thread prefetch = new Thread(this::prefetchTopicMetadata, "kafka-metadata-prefetch");
+        prefetch.setDaemon(true);
+        prefetch.start();
+    }
+
+    public void prefetchTopicMetadata() {
+        for (int attempt = 1; attempt <= METADATA_ATTEMPTS; attempt++) {
+            try {
+                kafkaTemplate.partitionsFor(topic);
+                return;
+            } catch (KafkaException | org.apache.kafka.common.KafkaException e) {
+                if (attempt == METADATA_ATTEMPTS) {
+                    log.warn("Metadata for topic {} not available yet; first requests may be refused", topic, e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Ingests one already validated transaction.
+     */
+    public Outcome ingest(Transaction transaction) {
+        if (!inFlight.tryAcquire()) {
+            throttled.increment();
+            throw new BackpressureException("Too many transactions awaiting acknowledgement");
+        }
+        if (!idempotencyGuard.claim(transaction.getTransactionId())) {
+            inFlight.release();
+            duplicates.increment();
+            return Outcome.DUPLICATE;
+        }
+        send(transaction);
+        return Outcome.ACCEPTED;
+    }
+
+    public BatchAcceptedResponse ingestBatch(List<Transaction> transactions) {
+        List<Transaction> valid = new ArrayList<>(transactions.size());
+        Set<String> seen = new HashSet<>();
+        int invalid = 0;
+        int duplicate = 0;
+        for (Transaction transaction : transactions) {
+            if (transaction == null || !validator.validate(transaction).isEmpty()) {
+                invalid++;
+            } else if (!seen.add(transaction.getTransactionId())) {
+                duplicate++;
+            } else {
+                valid.add(transaction);
+            }
+        }
+        rejected.increment(invalid);
+
+        // All or nothing: a batch is either admitted whole or refused so the client can resend it as is
+        if (!valid.isEmpty() && !inFlight.tryAcquire(valid.size())) {
+            throttled.increment(valid.size());
+            throw new BackpressureException("Too many transactions awaiting acknowledgement");
+        }
+
+        List<Boolean> claimed = valid.isEmpty()
+                ? List.of()
+                : idempotencyGuard.claimAll(valid.stream().map(Transaction::getTransactionId).toList());
+        int sent = 0;
+        for (int i = 0; i < valid.size(); i++) {
+            if (!claimed.get(i)) {
+                inFlight.release();
+                duplicate++;
+                continue;
+            }
+            try {
+                send(valid.get(i));
+                sent++;
+            } catch (BackpressureException e) {
+                // Buffer filled mid-batch: give back what was not produced and report how far we got
+                for (int j = i + 1; j < valid.size(); j++) {
+                    inFlight.release();
+                    if (claimed.get(j)) {
+                        idempotencyGuard.release(valid.get(j).getTransactionId());
+                    }
+                }
+                throttled.increment(valid.size() - i - 1);
+                break;
+            }
+        }
+        duplicates.increment(duplicate);
+
+        return BatchAcceptedResponse.builder()
+                .batchId("batch-" + UUID.randomUUID())
+                .totalTransactions(transactions.size())
+                .acceptedTransactions(sent)
+                .rejectedTransactions(transactions.size() - sent - duplicate)
+                .duplicateTransactions(duplicate)
+                .status("PROCESSING")
+                .build();
+    }
+
+    /**
+     * Hands the record to the producer. The caller must hold one in-flight permit, which is returned
+     * when the broker acknowledges (or fails) the record.
+     */
+    private void send(Transaction transaction) {
+        if (transaction.getTimestamp() == null) {
+            transaction.setTimestamp(LocalDateTime.now());
+        }
+        CompletableFuture<SendResult<String, Transaction>> future;
+        try {
+            future = kafkaTemplate.send(topic, transaction.getUserId(), transaction);
+        } catch (KafkaException | org.apache.kafka.common.KafkaException e) {
+            future = CompletableFuture.failedFuture(e);
+        }
+        if (future.isCompletedExceptionally()) {
+            // Producer buffer stayed full for max.block.ms (or the producer is closed)
+            inFlight.release();
+            throttled.increment();
+            idempotencyGuard.release(transaction.getTransactionId());
+            throw new BackpressureException("Producer buffer is full");
+        }
+        future.whenComplete((result, ex) -> {
+            inFlight.release();
+            if (ex == null) {
+                accepted.increment();
+            } else {
+                failed.increment();
+                idempotencyGuard.release(transaction.getTransactionId());
+                log.error("Failed to produce transaction {}", transaction.getTransactionId(), ex);
+            }
+        });
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("fraud.ingestion.transactions").tag("result", result).register(meterRegistry);
+    }
+}
@@ -0,0 +1,47 @@
+package com.intelliguard.fraudscoringservice.startup;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Records how long after JVM start the instance made its first real fraud decision, the number
+ * that matters when pods are scaled out under load. Logged once and exported as
+ * {@code fraud.startup.time.to.first.decision} (milliseconds, -1 until the first decision).
+ */
+@Component
+public class StartupReport {
+
+    private static final Logger log = LoggerFactory.getLogger(StartupReport.class);
+
+    private final long jvmStartMillis = ManagementFactory.getRuntimeMXBean().getStartTime();
+    private final AtomicLong timeToFirstDecision = new AtomicLong(-1);
+
+    public StartupReport(MeterRegistry meterRegistry) {
+        Gauge.builder("fraud.startup.time.to.first.decision", timeToFirstDecision, AtomicLong::get)
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+    }
+
+    public void onDecision() {
+        if (timeToFirstDecision.get() < 0) {
+            long elapsed = System.currentTimeMillis() - jvmStartMillis;
+            if (timeToFirstDecision.compareAndSet(-1, elapsed)) {
+                log.info("Time to first decision: {} ms after JVM start", elapsed);
+            }
+        }
+    }
+
+    public long elapsedSinceJvmStart() {
+        return System.currentTimeMillis() - jvmStartMillis;
+    }
+
+    public long getTimeToFirstDecision() {
+        return timeToFirstDecision.get();
+    }
+}
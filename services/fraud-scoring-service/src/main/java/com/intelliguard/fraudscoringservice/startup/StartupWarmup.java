@@ -0,0 +1,76 @@
+package com.intelliguard.fraudscoringservice.startup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.intelliguard.fraudscoringservice.DTO.Transaction;
+import com.intelliguard.fraudscoringservice.controller.KafkaPaymentConsumer;
+import com.intelliguard.fraudscoringservice.service.FraudScorer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+
+/**
+ * Runs synthetic transactions through deserialization and scoring so the JIT has compiled the hot
+ * path before the instance joins the consumer group, then starts the pending payment listener.
+ * Partitions are only assigned once the listener starts, so no real record waits on a cold JVM.
+ */
+@Component
+public class StartupWarmup {
+
+    private static final Logger log = LoggerFactory.getLogger(StartupWarmup.class);
+
+    private final FraudScorer fraudScorer;
+    private final ObjectMapper objectMapper;
+    private final KafkaListenerEndpointRegistry listenerRegistry;
+    private final StartupReport startupReport;
+
+    @Value("${fraud.startup.warmup.enabled:false}")
+    private boolean enabled;
+
+    @Value("${fraud.startup.warmup.iterations:20000}")
+    private int iterations;
+
+    public StartupWarmup(FraudScorer fraudScorer, ObjectMapper objectMapper,
+                         KafkaListenerEndpointRegistry listenerRegistry, StartupReport startupReport) {
+        this.fraudScorer = fraudScorer;
+        this.objectMapper = objectMapper;
+        this.listenerRegistry = listenerRegistry;
+        this.startupReport = startupReport;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUpAndStartListener() {
+        if (enabled) {
+            long start = System.nanoTime();
+            try {
+                warmUp();
+            } catch (IOException | RuntimeException e) {
+                log.warn("Warm-up aborted; starting listener cold", e);
+            }
+            fraudScorer.clearState();
+            log.info("Warm-up of {} synthetic transactions took {} ms", iterations, (System.nanoTime() - start) / 1_000_000);
+        }
+
+        MessageListenerContainer container = listenerRegistry.getListenerContainer(KafkaPaymentConsumer.LISTENER_ID);
+        if (container != null && !container.isRunning()) {
+            container.start();
+            log.info("Pending payment listener started {} ms after JVM start", startupReport.elapsedSinceJvmStart());
+        }
+    }
+
+    private void warmUp() throws IOException {
+        for (int i = 0; i < iterations; i++) {
+            Transaction synthetic = new Transaction("warmup-" + i, "warmup-user-" + (i % 100),
+                    (i % 50) * 400.0, "Warmup City", "warmup-device-" + (i % 10), LocalDateTime.now());
+            byte[] payload = objectMapper.writeValueAsBytes(synthetic);
+            fraudScorer.score(objectMapper.readValue(payload, Transaction.class));
+        }
+    }
+}
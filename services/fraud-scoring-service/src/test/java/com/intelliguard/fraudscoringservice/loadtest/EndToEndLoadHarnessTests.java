@@ -0,0 +1,241 @@
+package com.intelliguard.fraudscoringservice.loadtest;
+
+import com.intelliguard.fraudscoringservice.DTO.BatchAcceptedResponse;
+import com.intelliguard.fraudscoringservice.DTO.FraudDecision;
+import com.intelliguard.fraudscoringservice.DTO.Transaction;
+import com.intelliguard.fraudscoringservice.service.FraudScorer;
+import com.intelliguard.fraudscoringservice.service.IdempotencyGuard;
+import com.intelliguard.fraudscoringservice.service.InMemoryIdempotencyGuard;
+import com.intelliguard.fraudscoringservice.service.TransactionIngestionService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.ContainerTestUtils;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * End-to-end load harness: synthetic transactions go through the ingestion service, embedded
+ * Kafka and the real listener and scorer; produce-to-decision latency and throughput are measured
+ * against the architecture goals (p95 &lt; 100 ms, 10,000 TPS) and written to
+ * {@code target/load-reports/}. H2 and an in-memory idempotency guard stand in for Postgres and Redis.
+ * <p>
+ * Load is offered open-loop at a fixed rate and latency is measured from each transaction's
+ * scheduled send time, so a stalled sender shows up as latency instead of being hidden.
+ * <p>
+ * Run with {@code mvn -Pload-test test} (add {@code -Dloadtest.enforceGoals=true} to fail on missed goals); tune with {@code -Dloadtest.tps}, {@code -Dloadtest.durationSeconds},
+ * {@code -Dloadtest.users}, {@code -Dloadtest.userSkew} and the other {@code loadtest.*} properties.
+ */
+@Tag("load")
+@EmbeddedKafka(partitions = EndToEndLoadHarnessTests.PARTITIONS, topics = "pending-payment-pool", kraft = true)
+@SpringBootTest(properties = {
+        "spring.kafka.bootstrap-servers=${spring.embedded.kafka.brokers}",
+        "spring.kafka.listener.concurrency=" + EndToEndLoadHarnessTests.PARTITIONS,
+        "spring.datasource.url=jdbc:h2:mem:fraud;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false",
+        "logging.level.org.springframework.kafka=INFO",
+        "logging.level.org.apache.kafka=WARN"
+})
+class EndToEndLoadHarnessTests {
+
+    static final int PARTITIONS = 6;
+
+    private final int targetTps = Integer.getInteger("loadtest.tps", 10_000);
+    private final int durationSeconds = Integer.getInteger("loadtest.durationSeconds", 30);
+    private final int warmupSeconds = Integer.getInteger("loadtest.warmupSeconds", 10);
+    private final int tickMillis = Integer.getInteger("loadtest.tickMillis", 10);
+    private final double goalP95Millis = Double.parseDouble(System.getProperty("loadtest.goal.p95Millis", "100"));
+    private final boolean enforceGoals = Boolean.getBoolean("loadtest.enforceGoals");
+
+    @Autowired
+    private TransactionIngestionService ingestionService;
+
+    @Autowired
+    private RecordingFraudScorer scorer;
+
+    @Autowired
+    private KafkaListenerEndpointRegistry listenerRegistry;
+
+    @TestConfiguration
+    static class HarnessConfig {
+
+        @Bean
+        @Primary
+        RecordingFraudScorer recordingFraudScorer() {
+            return new RecordingFraudScorer();
+        }
+
+        @Bean
+        @Primary
+        IdempotencyGuard inMemoryIdempotencyGuard() {
+            return new InMemoryIdempotencyGuard();
+        }
+    }
+
+    /**
+     * Scorer that timestamps each decision against the harness's scheduled send time.
+     */
+    static class RecordingFraudScorer extends FraudScorer {
+
+        private final Map<String, Long> scheduledAt = new ConcurrentHashMap<>();
+        private final Map<FraudDecision.Decision, LongAdder> decisions = new EnumMap<>(FraudDecision.Decision.class);
+        private long[] latencies = new long[0];
+        private final AtomicInteger recorded = new AtomicInteger();
+        private volatile long lastDecisionNanos;
+
+        RecordingFraudScorer() {
+            super(10_000, 5, 10);
+            for (FraudDecision.Decision decision : FraudDecision.Decision.values()) {
+                decisions.put(decision, new LongAdder());
+            }
+        }
+
+        void startMeasuring(int expected) {
+            latencies = new long[expected];
+            recorded.set(0);
+            decisions.values().forEach(LongAdder::reset);
+        }
+
+        @Override
+        public FraudDecision score(Transaction transaction) {
+            FraudDecision decision = super.score(transaction);
+            Long scheduled = scheduledAt.remove(transaction.getTransactionId());
+            if (scheduled != null) {
+                int index = recorded.getAndIncrement();
+                if (index < latencies.length) {
+                    long now = System.nanoTime();
+                    latencies[index] = now - scheduled;
+                    lastDecisionNanos = now;
+                }
+                decisions.get(decision.getDecision()).increment();
+            }
+            return decision;
+        }
+    }
+
+    private record Phase(long offered, long accepted, long refused, double seconds) {
+    }
+
+    @Test
+    void measuresProduceToDecisionLatencyAndThroughput() throws Exception {
+        listenerRegistry.getListenerContainers()
+                .forEach(container -> ContainerTestUtils.waitForAssignment(container, PARTITIONS));
+        SyntheticTransactionGenerator.Config generatorConfig = SyntheticTransactionGenerator.Config.fromSystemProperties();
+        SyntheticTransactionGenerator generator = new SyntheticTransactionGenerator(generatorConfig);
+
+        // Warm-up at the target rate; its decisions are not measured
+        offer(generator, warmupSeconds, false);
+
+        int expected = targetTps * durationSeconds;
+        scorer.startMeasuring(expected);
+        long measureStart = System.nanoTime();
+        Phase phase = offer(generator, durationSeconds, true);
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(60);
+        while (scorer.recorded.get() < phase.accepted() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        double elapsed = phase.seconds();
+        int decided = Math.min(scorer.recorded.get(), scorer.latencies.length);
+
+        Map<String, Double> latency = LoadReport.latencySummary(scorer.latencies, decided);
+        double decisionSeconds = decided == 0 ? elapsed : (scorer.lastDecisionNanos - measureStart) / 1e9;
+        double decisionTps = decided / decisionSeconds;
+
+        Map<String, Object> settings = new LinkedHashMap<>();
+        settings.put("targetTps", targetTps);
+        settings.put("durationSeconds", durationSeconds);
+        settings.put("warmupSeconds", warmupSeconds);
+        settings.put("tickMillis", tickMillis);
+        settings.put("partitions", PARTITIONS);
+        settings.put("generator", generatorConfig);
+
+        Map<String, Long> decisionCounts = new LinkedHashMap<>();
+        scorer.decisions.forEach((decision, count) -> decisionCounts.put(decision.name(), count.sum()));
+
+        Map<String, Object> goals = new LinkedHashMap<>();
+        goals.put("p95Millis", goalP95Millis);
+        goals.put("p95Met", latency.get("p95") < goalP95Millis);
+        goals.put("tps", targetTps);
+        goals.put("tpsMet", decisionTps >= targetTps * 0.95);
+
+        LoadReport report = new LoadReport(Instant.now().toString(), settings, phase.offered(), phase.accepted(),
+                phase.refused(), decided, elapsed, phase.offered() / elapsed, decisionTps, latency, decisionCounts, goals,
+                LoadReport.describeEnvironment());
+        Path file = report.write(Path.of("target", "load-reports"));
+        System.out.printf("Offered %.0f TPS, decided %.0f TPS; latency p50=%.2fms p95=%.2fms p99=%.2fms max=%.2fms; report: %s%n",
+                report.offeredTps(), decisionTps, latency.get("p50"), latency.get("p95"), latency.get("p99"),
+                latency.get("max"), file.toAbsolutePath());
+
+        assertEquals(phase.accepted(), decided, "Every accepted transaction should be decided");
+        // Goals depend on the machine, so they fail the run only where a dedicated box asks for it
+        if (enforceGoals) {
+            assertTrue((Boolean) goals.get("p95Met"), "p95 produce-to-decision latency above " + goalP95Millis + " ms");
+            assertTrue((Boolean) goals.get("tpsMet"), "Sustained " + (long) decisionTps + " TPS, target " + targetTps);
+        }
+    }
+
+    /**
+     * Offers {@code targetTps} for the given duration in fixed ticks, recording each transaction's
+     * scheduled time when {@code measure} is set.
+     */
+    private Phase offer(SyntheticTransactionGenerator generator, int seconds, boolean measure) {
+        int perTick = Math.max(1, targetTps * tickMillis / 1000);
+        long tickNanos = TimeUnit.MILLISECONDS.toNanos(tickMillis);
+        long ticks = seconds * 1000L / tickMillis;
+        long offered = 0;
+        long accepted = 0;
+        long refused = 0;
+
+        long start = System.nanoTime();
+        for (long tick = 0; tick < ticks; tick++) {
+            long scheduled = start + tick * tickNanos;
+            long wait = scheduled - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+
+            List<Transaction> batch = new ArrayList<>(perTick);
+            for (int i = 0; i < perTick; i++) {
+                Transaction transaction = generator.next();
+                batch.add(transaction);
+                if (measure) {
+                    scorer.scheduledAt.put(transaction.getTransactionId(), scheduled);
+                }
+            }
+            offered += perTick;
+            try {
+                BatchAcceptedResponse response = ingestionService.ingestBatch(batch);
+                accepted += response.getAcceptedTransactions();
+                refused += perTick - response.getAcceptedTransactions();
+            } catch (TransactionIngestionService.BackpressureException e) {
+                refused += perTick;
+            }
+        }
+        return new Phase(offered, accepted, refused, (System.nanoTime() - start) / 1e9);
+    }
+}
@@ -0,0 +1,74 @@
+package com.intelliguard.fraudscoringservice.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.format.DateTimeFormatter;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Result of one harness run, written as JSON to {@code target/load-reports/} so runs of
+ * different builds can be diffed.
+ */
+public record LoadReport(
+        String generatedAt,
+        Map<String, Object> settings,
+        long offered,
+        long accepted,
+        long refused,
+        long decided,
+        double durationSeconds,
+        double offeredTps,
+        double decisionTps,
+        Map<String, Double> latencyMillis,
+        Map<String, Long> decisions,
+        Map<String, Object> goals,
+        Map<String, String> environment) {
+
+    private static final double[] PERCENTILES = {50, 90, 95, 99, 99.9};
+
+    /**
+     * Percentiles (nearest rank) of produce-to-decision latencies given in nanoseconds.
+     */
+    static Map<String, Double> latencySummary(long[] latencyNanos, int count) {
+        long[] sorted = Arrays.copyOf(latencyNanos, count);
+        Arrays.sort(sorted);
+        Map<String, Double> summary = new LinkedHashMap<>();
+        for (double percentile : PERCENTILES) {
+            String name = "p" + (percentile == Math.floor(percentile) ? String.valueOf((int) percentile) : String.valueOf(percentile));
+            summary.put(name, count == 0 ? 0.0 : toMillis(sorted[Math.max(0, (int) Math.ceil(percentile / 100 * count) - 1)]));
+        }
+        summary.put("max", count == 0 ? 0.0 : toMillis(sorted[count - 1]));
+        summary.put("mean", count == 0 ? 0.0 : toMillis((long) Arrays.stream(sorted).average().orElse(0)));
+        return summary;
+    }
+
+    static Map<String, String> describeEnvironment() {
+        Map<String, String> environment = new LinkedHashMap<>();
+        environment.put("java", System.getProperty("java.vm.name") + " " + System.getProperty("java.version"));
+        environment.put("os", System.getProperty("os.name") + " " + System.getProperty("os.arch"));
+        environment.put("processors", String.valueOf(Runtime.getRuntime().availableProcessors()));
+        environment.put("maxHeapMb", String.valueOf(Runtime.getRuntime().maxMemory() / (1024 * 1024)));
+        environment.put("build", System.getProperty("loadtest.buildLabel", "local"));
+        return environment;
+    }
+
+    Path write(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        String stamp = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss").withZone(ZoneOffset.UTC).format(Instant.now());
+        Path file = directory.resolve("load-report-" + stamp + ".json");
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file.toFile(), this);
+        return file;
+    }
+
+    private static double toMillis(long nanos) {
+        return Math.round(nanos / 10_000.0) / 100.0;
+    }
+}
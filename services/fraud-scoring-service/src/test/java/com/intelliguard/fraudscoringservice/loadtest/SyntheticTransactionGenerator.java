@@ -0,0 +1,101 @@
+package com.intelliguard.fraudscoringservice.loadtest;
+
+import com.intelliguard.fraudscoringservice.DTO.Transaction;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Deterministic generator of synthetic {@link Transaction}s with the skew real traffic has:
+ * user activity and city popularity follow Zipf distributions, each user mostly pays from a home
+ * device and city, and amounts are log-normal with a small tail of very large payments.
+ */
+public class SyntheticTransactionGenerator {
+
+    private static final String[] CITIES = {
+            "New York, US", "London, GB", "San Francisco, US", "Berlin, DE", "Paris, FR", "Toronto, CA",
+            "Sydney, AU", "Singapore, SG", "Tokyo, JP", "Mumbai, IN", "Sao Paulo, BR", "Madrid, ES",
+            "Amsterdam, NL", "Chicago, US", "Dublin, IE", "Zurich, CH", "Seoul, KR", "Mexico City, MX",
+            "Lagos, NG", "Dubai, AE", "Stockholm, SE", "Warsaw, PL", "Austin, US", "Cape Town, ZA"};
+
+    private final Config config;
+    private final SplittableRandom random;
+    private final double[] userCdf;
+    private final double[] cityCdf;
+    private final AtomicLong sequence = new AtomicLong();
+
+    public record Config(int users, double userSkew, double citySkew, double travelProbability,
+                         double newDeviceProbability, double medianAmount, double amountSigma,
+                         double largeAmountProbability, long seed) {
+
+        public static Config fromSystemProperties() {
+            return new Config(
+                    Integer.getInteger("loadtest.users", 50_000),
+                    Double.parseDouble(System.getProperty("loadtest.userSkew", "1.1")),
+                    Double.parseDouble(System.getProperty("loadtest.citySkew", "1.0")),
+                    Double.parseDouble(System.getProperty("loadtest.travelProbability", "0.03")),
+                    Double.parseDouble(System.getProperty("loadtest.newDeviceProbability", "0.02")),
+                    Double.parseDouble(System.getProperty("loadtest.medianAmount", "60")),
+                    Double.parseDouble(System.getProperty("loadtest.amountSigma", "1.0")),
+                    Double.parseDouble(System.getProperty("loadtest.largeAmountProbability", "0.005")),
+                    Long.getLong("loadtest.seed", 42L));
+        }
+    }
+
+    public SyntheticTransactionGenerator(Config config) {
+        this.config = config;
+        this.random = new SplittableRandom(config.seed());
+        this.userCdf = zipfCdf(config.users(), config.userSkew());
+        this.cityCdf = zipfCdf(CITIES.length, config.citySkew());
+    }
+
+    /**
+     * Not thread-safe; use one generator per sending thread.
+     */
+    public Transaction next() {
+        int user = sample(userCdf);
+        // Scatter ranks so the hottest users are not simply user-0, user-1, ...
+        int userId = Math.floorMod(user * 0x9E3779B1, config.users());
+
+        String city = random.nextDouble() < config.travelProbability()
+                ? CITIES[sample(cityCdf)]
+                : CITIES[Math.floorMod(userId * 31 + 7, CITIES.length)];
+        String device = random.nextDouble() < config.newDeviceProbability()
+                ? "device-" + Long.toHexString(random.nextLong())
+                : "device-" + userId;
+
+        double amount = random.nextDouble() < config.largeAmountProbability()
+                ? 10_000 + random.nextDouble() * 40_000
+                : config.medianAmount() * Math.exp(config.amountSigma() * gaussian());
+
+        return new Transaction("lt-" + config.seed() + "-" + sequence.incrementAndGet(), "user-" + userId,
+                Math.max(0.01, Math.round(amount * 100) / 100.0), city, device, LocalDateTime.now());
+    }
+
+    private int sample(double[] cdf) {
+        int index = Arrays.binarySearch(cdf, random.nextDouble());
+        return index >= 0 ? index : Math.min(-index - 1, cdf.length - 1);
+    }
+
+    private double gaussian() {
+        // Box-Muller; SplittableRandom has no nextGaussian on Java 17
+        double u1 = 1.0 - random.nextDouble();
+        double u2 = random.nextDouble();
+        return Math.sqrt(-2 * Math.log(u1)) * Math.cos(2 * Math.PI * u2);
+    }
+
+    private static double[] zipfCdf(int n, double skew) {
+        double[] cdf = new double[n];
+        double sum = 0;
+        for (int rank = 1; rank <= n; rank++) {
+            sum += 1 / Math.pow(rank, skew);
+            cdf[rank - 1] = sum;
+        }
+        for (int i = 0; i < n; i++) {
+            cdf[i] /= sum;
+        }
+        return cdf;
+    }
+}
@@ -0,0 +1,53 @@
+package com.intelliguard.fraudscoringservice.metrics;
+
+import com.intelliguard.fraudscoringservice.DTO.FraudDecision;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WindowAggregateTests {
+
+    private static final int PRECISION = 12;
+
+    @Test
+    void estimatesDistinctUsersWithinSketchError() {
+        HyperLogLog users = new HyperLogLog(PRECISION);
+        for (int i = 0; i < 200_000; i++) {
+            users.offer("user-" + (i % 50_000));
+        }
+        // Standard error at precision 12 is ~1.6%; allow three of them
+        assertEquals(50_000, users.estimate(), 50_000 * 0.05);
+    }
+
+    @Test
+    void mergingInstancesMatchesRecordingEverythingInOne() {
+        LiveBucket combined = new LiveBucket(0, 600_000, PRECISION);
+        LiveBucket first = new LiveBucket(0, 600_000, PRECISION);
+        LiveBucket second = new LiveBucket(0, 600_000, PRECISION);
+        for (int i = 0; i < 20_000; i++) {
+            FraudDecision decision = decision(i % 10 == 0 ? FraudDecision.Decision.BLOCK : FraudDecision.Decision.ALLOW, i % 100);
+            LiveBucket instance = i % 2 == 0 ? first : second;
+            instance.record(i, "user-" + (i % 3_000), "device-" + (i % 4_000), 10 + i % 500, decision, i % 80);
+            combined.record(i, "user-" + (i % 3_000), "device-" + (i % 4_000), 10 + i % 500, decision, i % 80);
+        }
+
+        WindowAggregate expected = combined.freeze();
+        WindowAggregate merged = WindowAggregate.fromExported(first.freeze().export())
+                .merge(WindowAggregate.fromExported(second.freeze().export()));
+
+        assertEquals(expected.total, merged.total);
+        assertEquals(expected.blocked, merged.blocked);
+        assertEquals(expected.riskScoreSum, merged.riskScoreSum);
+        // HyperLogLog union is exact: same registers as sketching the combined stream
+        assertEquals(expected.users.estimate(), merged.users.estimate());
+        assertEquals(expected.devices.estimate(), merged.devices.estimate());
+        assertEquals(expected.latencyMillis.getValueAtPercentile(95), merged.latencyMillis.getValueAtPercentile(95));
+        assertEquals(expected.amountCents.getMaxValue(), merged.amountCents.getMaxValue());
+        assertTrue(merged.peakPerSecond <= expected.peakPerSecond);
+    }
+
+    private static FraudDecision decision(FraudDecision.Decision decision, int riskScore) {
+        return FraudDecision.builder().decision(decision).riskScore(riskScore).build();
+    }
+}
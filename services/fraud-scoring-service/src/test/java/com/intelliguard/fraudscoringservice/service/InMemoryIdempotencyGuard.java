@@ -0,0 +1,32 @@
+package com.intelliguard.fraudscoringservice.service;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Redis stand-in for tests that exercise ingestion without a Redis server.
+ */
+public class InMemoryIdempotencyGuard extends IdempotencyGuard {
+
+    private final Set<String> claimed = ConcurrentHashMap.newKeySet();
+
+    public InMemoryIdempotencyGuard() {
+        super(null, 24);
+    }
+
+    @Override
+    public boolean claim(String transactionId) {
+        return claimed.add(transactionId);
+    }
+
+    @Override
+    public List<Boolean> claimAll(List<String> transactionIds) {
+        return transactionIds.stream().map(claimed::add).toList();
+    }
+
+    @Override
+    public void release(String transactionId) {
+        claimed.remove(transactionId);
+    }
+}
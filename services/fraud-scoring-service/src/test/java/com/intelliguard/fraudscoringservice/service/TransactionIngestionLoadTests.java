@@ -0,0 +1,173 @@
+package com.intelliguard.fraudscoringservice.service;
+
+import com.intelliguard.fraudscoringservice.DTO.BatchAcceptedResponse;
+import com.intelliguard.fraudscoringservice.DTO.Transaction;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.EmbeddedKafkaKraftBroker;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Drives {@link TransactionIngestionService} against an embedded Kafka broker with the production
+ * producer settings, checking idempotency and measuring sustained ingestion throughput. The
+ * throughput run is tagged {@code load} and only runs with {@code mvn -Pload-test test}; add
+ * {@code -Dloadtest.enforceGoals=true} to fail it below 10,000 TPS.
+ */
+class TransactionIngestionLoadTests {
+
+    private static final Logger log = LoggerFactory.getLogger(TransactionIngestionLoadTests.class);
+
+    private static final String TOPIC = "pending-payment-pool";
+    private static final int TOTAL = 200_000;
+    private static final int BATCH_SIZE = 1000;
+    private static final int CLIENT_THREADS = 4;
+
+    private static EmbeddedKafkaBroker broker;
+    private static KafkaTemplate<String, Transaction> kafkaTemplate;
+
+    private final Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @BeforeAll
+    static void startBroker() {
+        broker = new EmbeddedKafkaKraftBroker(1, 6, TOPIC);
+        broker.afterPropertiesSet();
+
+        Map<String, Object> config = Map.of(
+                ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, broker.getBrokersAsString(),
+                ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class,
+                ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class,
+                ProducerConfig.ACKS_CONFIG, "all",
+                ProducerConfig.BATCH_SIZE_CONFIG, 65536,
+                ProducerConfig.LINGER_MS_CONFIG, 5,
+                ProducerConfig.COMPRESSION_TYPE_CONFIG, "lz4",
+                ProducerConfig.MAX_BLOCK_MS_CONFIG, 50,
+                JsonSerializer.ADD_TYPE_INFO_HEADERS, false);
+        kafkaTemplate = new KafkaTemplate<>(new DefaultKafkaProducerFactory<>(config));
+    }
+
+    @AfterAll
+    static void stopBroker() {
+        kafkaTemplate.destroy();
+        broker.destroy();
+    }
+
+    @Test
+    void rejectsInvalidAndDuplicateTransactions() {
+        TransactionIngestionService service = service(10_000);
+        service.prefetchTopicMetadata();
+        List<Transaction> batch = List.of(
+                transaction("txn-a", "user-1"),
+                transaction("txn-a", "user-1"),
+                transaction("txn-b", "user-2"),
+                transaction("", "user-3"));
+
+        BatchAcceptedResponse response = service.ingestBatch(batch);
+        assertEquals(4, response.getTotalTransactions());
+        assertEquals(2, response.getAcceptedTransactions());
+        assertEquals(1, response.getDuplicateTransactions());
+        assertEquals(1, response.getRejectedTransactions());
+
+        assertEquals(TransactionIngestionService.Outcome.DUPLICATE, service.ingest(transaction("txn-b", "user-2")));
+        assertEquals(TransactionIngestionService.Outcome.ACCEPTED, service.ingest(transaction("txn-c", "user-2")));
+    }
+
+    @Test
+    @Tag("load")
+    void sustainsTargetThroughput() throws Exception {
+        TransactionIngestionService service = service(100_000);
+        ExecutorService clients = Executors.newFixedThreadPool(CLIENT_THREADS);
+
+        // Warm up producer connections and the JIT
+        service.prefetchTopicMetadata();
+        int warmup = service.ingestBatch(batch("warmup", 0, 5_000)).getAcceptedTransactions();
+        awaitAcknowledged(warmup);
+
+        long start = System.nanoTime();
+        List<Future<Integer>> results = new ArrayList<>();
+        for (int t = 0; t < CLIENT_THREADS; t++) {
+            int client = t;
+            results.add(clients.submit(() -> {
+                int accepted = 0;
+                for (int offset = client * BATCH_SIZE; offset < TOTAL; offset += CLIENT_THREADS * BATCH_SIZE) {
+                    try {
+                        BatchAcceptedResponse response = service.ingestBatch(batch("load", offset, BATCH_SIZE));
+                        accepted += response.getAcceptedTransactions();
+                        if (response.getAcceptedTransactions() + response.getDuplicateTransactions() < BATCH_SIZE) {
+                            throw new TransactionIngestionService.BackpressureException("partially admitted");
+                        }
+                    } catch (TransactionIngestionService.BackpressureException e) {
+                        offset -= CLIENT_THREADS * BATCH_SIZE; // back off and resend the same batch
+                        Thread.sleep(1);
+                    }
+                }
+                return accepted;
+            }));
+        }
+        int accepted = 0;
+        for (Future<Integer> result : results) {
+            accepted += result.get();
+        }
+        awaitAcknowledged(warmup + TOTAL);
+        double seconds = (System.nanoTime() - start) / 1e9;
+        clients.shutdown();
+
+        double tps = TOTAL / seconds;
+        log.info("Ingested {} transactions in {}s: {} TPS (acks=all, lz4, linger 5ms)",
+                TOTAL, String.format("%.2f", seconds), (long) tps);
+        assertEquals(TOTAL, accepted);
+        // Throughput depends on the machine, so it only fails the run where a dedicated box asks for it
+        if (Boolean.getBoolean("loadtest.enforceGoals")) {
+            assertTrue(tps >= 10_000, "Expected at least 10k TPS but measured " + (long) tps);
+        }
+    }
+
+    private TransactionIngestionService service(int maxInFlight) {
+        return new TransactionIngestionService(kafkaTemplate, new InMemoryIdempotencyGuard(), validator, meterRegistry,
+                TOPIC, maxInFlight);
+    }
+
+    private void awaitAcknowledged(long expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(60);
+        while (meterRegistry.counter("fraud.ingestion.transactions", "result", "accepted").count() < expected) {
+            assertTrue(System.nanoTime() < deadline, "Broker did not acknowledge all records in time");
+            Thread.sleep(5);
+        }
+    }
+
+    private static List<Transaction> batch(String prefix, int offset, int size) {
+        List<Transaction> batch = new ArrayList<>(size);
+        for (int i = offset; i < offset + size; i++) {
+            batch.add(transaction(prefix + "-" + i, "user-" + (i % 5_000)));
+        }
+        return batch;
+    }
+
+    private static Transaction transaction(String id, String userId) {
+        return new Transaction(id, userId, 125.50, "San Francisco, US", "device-" + userId, LocalDateTime.now());
+    }
+}
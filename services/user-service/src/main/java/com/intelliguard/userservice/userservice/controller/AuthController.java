@@ -2,12 +2,18 @@ package com.intelliguard.userservice.userservice.controller;
 
 import com.intelliguard.userservice.userservice.dto.*;
 import com.intelliguard.userservice.userservice.service.AuthService;
+import com.intelliguard.userservice.userservice.service.LoginAttemptService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ProblemDetail;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.net.URI;
+
 @RestController
 @RequestMapping("/api/v1/auth")
 @RequiredArgsConstructor
@@ -22,8 +28,9 @@ public class AuthController {
     }
 
     @PostMapping("/login")
-    public ResponseEntity<AuthResponse> login(@Valid @RequestBody LoginRequest request) {
-        AuthResponse response = authService.login(request);
+    public ResponseEntity<AuthResponse> login(@Valid @RequestBody LoginRequest request,
+                                              HttpServletRequest httpRequest) {
+        AuthResponse response = authService.login(request, resolveClientIp(httpRequest));
         return ResponseEntity.ok(response);
     }
 
@@ -38,4 +45,28 @@ public class AuthController {
         // TODO: Implement token blacklist in Redis
         return ResponseEntity.noContent().build();
     }
+
+    @ExceptionHandler(LoginAttemptService.LoginThrottledException.class)
+    public ResponseEntity<ProblemDetail> handleLoginThrottled(LoginAttemptService.LoginThrottledException e) {
+        ProblemDetail problem = ProblemDetail.forStatusAndDetail(HttpStatus.TOO_MANY_REQUESTS, e.getMessage());
+        problem.setType(URI.create("https://api.intelliguard.io/errors/rate-limit-error"));
+        problem.setTitle("Too Many Login Attempts");
+        problem.setProperty("retryAfter", e.getRetryAfterSeconds());
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(problem);
+    }
+
+    static String resolveClientIp(HttpServletRequest request) {
+        // Requests arrive through the gateway, which appends the address it saw to X-Forwarded-For.
+        // Earlier hops are whatever the client sent, so only the last one can be trusted.
+        String forwardedFor = request.getHeader("X-Forwarded-For");
+        if (forwardedFor != null && !forwardedFor.isBlank()) {
+            String lastHop = forwardedFor.substring(forwardedFor.lastIndexOf(',') + 1).trim();
+            if (!lastHop.isEmpty()) {
+                return lastHop;
+            }
+        }
+        return request.getRemoteAddr();
+    }
 }
@@ -1,44 +1,98 @@
 package com.intelliguard.userservice.userservice.controller;
 
+import com.intelliguard.userservice.userservice.dto.BulkImportStatus;
+import com.intelliguard.userservice.userservice.dto.UserPageResponse;
+import com.intelliguard.userservice.userservice.dto.UserResponse;
 import com.intelliguard.userservice.userservice.entity.User;
+import com.intelliguard.userservice.userservice.service.BulkUserImportService;
 import com.intelliguard.userservice.userservice.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ProblemDetail;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.time.Duration;
 
 @RestController
 @RequestMapping("api/v1/users")
 public class UserController {
 
     private UserService userService;
+    private BulkUserImportService bulkUserImportService;
+
+    // Lets the gateway micro-cache absorb dashboard polling of the same profile
+    @Value("${user.profile-cache.http-max-age-seconds:2}")
+    private long profileMaxAgeSeconds;
+
     @Autowired
-    public UserController(UserService userService) {
+    public UserController(UserService userService, BulkUserImportService bulkUserImportService) {
         this.userService = userService;
+        this.bulkUserImportService = bulkUserImportService;
     }
 
-    @GetMapping("all")
-    public ResponseEntity<List<User>> getAllUsers() {
-        List<User> users = userService.getUsers();
-        if (!users.isEmpty()) return new ResponseEntity<>(users,HttpStatus.OK);
+    @GetMapping({"", "all"})
+    public ResponseEntity<UserPageResponse> getAllUsers(@RequestParam(required = false) Long after,
+                                                        @RequestParam(defaultValue = "50") int size,
+                                                        @RequestParam(required = false) User.UserStatus status,
+                                                        @RequestParam(required = false) String role,
+                                                        @RequestParam(required = false) String emailPrefix) {
+        UserPageResponse page = userService.getUsers(after, size, status, role, emailPrefix);
+        if (!page.getUsers().isEmpty()) return new ResponseEntity<>(page,HttpStatus.OK);
         return new ResponseEntity<>(null,HttpStatus.NO_CONTENT);
     }
 
+    @GetMapping(value = "export", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> exportUsers(@RequestParam(required = false) User.UserStatus status,
+                                                             @RequestParam(required = false) String role,
+                                                             @RequestParam(required = false) String emailPrefix) {
+        StreamingResponseBody body = out -> userService.exportUsers(status, role, emailPrefix, out);
+        return new ResponseEntity<>(body,HttpStatus.OK);
+    }
+
     @PostMapping
     public ResponseEntity<User> createUser(@RequestBody User user) {
         return new ResponseEntity<>(HttpStatus.CREATED);
     }
 
-    @GetMapping("{id}")
-    public ResponseEntity<User> getUserById(@PathVariable Long id) {
-        User user=userService.getUserById(id);
-        if(user!=null) return new ResponseEntity<>(user,HttpStatus.OK);
+    @PostMapping(value = "import", consumes = "text/csv")
+    public ResponseEntity<BulkImportStatus> importUsers(InputStream csv) throws IOException {
+        BulkImportStatus status = bulkUserImportService.submit(csv);
+        return new ResponseEntity<>(status,HttpStatus.ACCEPTED);
+    }
+
+    @GetMapping("import/{jobId}")
+    public ResponseEntity<BulkImportStatus> getImportStatus(@PathVariable String jobId) {
+        BulkImportStatus status = bulkUserImportService.getStatus(jobId);
+        if(status!=null) return new ResponseEntity<>(status,HttpStatus.OK);
         else return new ResponseEntity<>(null,HttpStatus.NOT_FOUND);
     }
 
+    @GetMapping("{id}")
+    public ResponseEntity<UserResponse> getUserById(@PathVariable Long id) {
+        UserResponse user=userService.getUserById(id);
+        if(user!=null) return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(Duration.ofSeconds(profileMaxAgeSeconds)).cachePrivate())
+                .body(user);
+        else return new ResponseEntity<>(null,HttpStatus.NOT_FOUND);
+    }
 
+    @ExceptionHandler(BulkUserImportService.ImportQueueFullException.class)
+    public ResponseEntity<ProblemDetail> handleImportQueueFull(BulkUserImportService.ImportQueueFullException e) {
+        ProblemDetail problem = ProblemDetail.forStatusAndDetail(HttpStatus.SERVICE_UNAVAILABLE, e.getMessage());
+        problem.setType(URI.create("https://api.intelliguard.io/errors/import-queue-full"));
+        problem.setTitle("Import Queue Full");
+        problem.setProperty("retryAfter", e.getRetryAfterSeconds());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(problem);
+    }
 
 }
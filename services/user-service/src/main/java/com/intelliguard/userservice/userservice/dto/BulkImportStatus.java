@@ -0,0 +1,25 @@
+package com.intelliguard.userservice.userservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkImportStatus {
+
+    private String jobId;
+    private String status; // QUEUED, RUNNING, COMPLETED, FAILED
+    private long processed;
+    private long imported;
+    private long duplicates;
+    private long rejected;
+    private String error;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+}
@@ -0,0 +1,19 @@
+package com.intelliguard.userservice.userservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserPageResponse {
+
+    private List<UserResponse> users;
+    private Long nextCursor; // Pass as "after" to fetch the next page; null on the last page
+    private boolean hasMore;
+}
@@ -0,0 +1,49 @@
+package com.intelliguard.userservice.userservice.entity;
+
+import java.util.Collection;
+
+/**
+ * Permissions that can be granted to a {@link Role}. Each permission owns one bit of the
+ * permission mask carried in access tokens, so the bit positions are part of the token
+ * format: append new permissions, never reorder or remove existing ones.
+ */
+public enum Permission {
+    READ_TRANSACTIONS,
+    INGEST_TRANSACTIONS,
+    READ_ALERTS,
+    MANAGE_ALERTS,
+    MANAGE_RULES,
+    MANAGE_USERS;
+
+    /** Wildcard used in {@code roles.permissions} to grant every permission. */
+    public static final String WILDCARD = "*";
+
+    public static final long ALL_MASK = (1L << values().length) - 1;
+
+    public long mask() {
+        return 1L << ordinal();
+    }
+
+    /**
+     * Compiles permission names to a mask. Unknown names are rejected rather than skipped, so a
+     * typo in the roles table cannot silently drop a grant.
+     *
+     * @throws IllegalArgumentException if a name is neither a permission nor the wildcard
+     */
+    public static long maskOf(Collection<String> names) {
+        long mask = 0L;
+        boolean wildcard = false;
+        for (String name : names) {
+            if (WILDCARD.equals(name)) {
+                wildcard = true;
+            } else {
+                mask |= valueOf(name).mask();
+            }
+        }
+        return wildcard ? ALL_MASK : mask;
+    }
+
+    public static boolean isGranted(long mask, Permission permission) {
+        return (mask & permission.mask()) != 0;
+    }
+}
@@ -6,6 +6,7 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -14,18 +15,50 @@ import java.util.Optional;
 @Repository
 public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
 
-    Optional<RefreshToken> findByToken(String token);
+    Optional<RefreshToken> findByTokenHash(String tokenHash);
 
     List<RefreshToken> findByUser(User user);
 
     @Modifying
-    @Query("UPDATE RefreshToken rt SET rt.revoked = true, rt.revokedAt = :now WHERE rt.user = :user")
+    @Query("UPDATE RefreshToken rt SET rt.revoked = true, rt.revokedAt = :now WHERE rt.user = :user AND rt.revoked = false")
     void revokeAllUserTokens(User user, LocalDateTime now);
 
+    /**
+     * Revokes every live refresh token of the user and stores the new one in a single statement.
+     * Returns the id of the new token.
+     */
+    @Query(value = "WITH revoked AS (" +
+            "UPDATE refresh_tokens SET revoked = true, revoked_at = :now WHERE user_id = :userId AND revoked = false) " +
+            "INSERT INTO refresh_tokens (user_id, token_hash, expires_at, revoked, created_at) " +
+            "VALUES (:userId, :tokenHash, :expiresAt, false, :now) RETURNING id", nativeQuery = true)
+    Long rotateUserTokens(Long userId, String tokenHash, LocalDateTime expiresAt, LocalDateTime now);
+
+    /**
+     * Revokes the given refresh token and stores its replacement in a single statement. The
+     * replacement is only inserted when the old token was still live, so a token that is
+     * replayed concurrently rotates at most once; an empty result means nothing was rotated.
+     */
+    @Query(value = "WITH revoked AS (" +
+            "UPDATE refresh_tokens SET revoked = true, revoked_at = :now " +
+            "WHERE id = :tokenId AND revoked = false AND expires_at > :now RETURNING user_id) " +
+            "INSERT INTO refresh_tokens (user_id, token_hash, expires_at, revoked, created_at) " +
+            "SELECT user_id, :tokenHash, :expiresAt, false, :now FROM revoked RETURNING id", nativeQuery = true)
+    Optional<Long> rotateToken(Long tokenId, String tokenHash, LocalDateTime expiresAt, LocalDateTime now);
+
     @Modifying
     @Query("DELETE FROM RefreshToken rt WHERE rt.expiresAt < :now")
     void deleteExpiredTokens(LocalDateTime now);
 
+    /**
+     * Deletes at most {@code limit} expired tokens in its own short transaction and returns the count.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM refresh_tokens WHERE id IN (" +
+            "SELECT id FROM refresh_tokens WHERE expires_at < :now LIMIT :limit FOR UPDATE SKIP LOCKED)",
+            nativeQuery = true)
+    int deleteExpiredTokensBatch(LocalDateTime now, int limit);
+
     @Query("SELECT rt FROM RefreshToken rt WHERE rt.user = :user AND rt.revoked = false AND rt.expiresAt > :now")
     List<RefreshToken> findValidTokensByUser(User user, LocalDateTime now);
 }
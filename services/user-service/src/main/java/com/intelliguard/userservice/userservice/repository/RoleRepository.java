@@ -2,8 +2,10 @@ package com.intelliguard.userservice.userservice.repository;
 
 import com.intelliguard.userservice.userservice.entity.Role;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.Optional;
 
 @Repository
@@ -12,4 +14,7 @@ public interface RoleRepository extends JpaRepository<Role, Long> {
     Optional<Role> findByName(String name);
 
     boolean existsByName(String name);
+
+    @Query("SELECT MAX(r.updatedAt) FROM Role r")
+    Optional<LocalDateTime> findLatestUpdatedAt();
 }
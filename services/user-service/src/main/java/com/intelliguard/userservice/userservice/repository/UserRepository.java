@@ -1,13 +1,19 @@
 package com.intelliguard.userservice.userservice.repository;
 
+import com.intelliguard.userservice.userservice.dto.UserResponse;
 import com.intelliguard.userservice.userservice.entity.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
@@ -27,4 +33,33 @@ public interface UserRepository extends JpaRepository<User, Long> {
     List<User> findLockedUsersExpiredBefore(LocalDateTime now);
 
     List<User> findByStatus(User.UserStatus status);
+
+    String USER_RESPONSE_SELECT = "SELECT new com.intelliguard.userservice.userservice.dto.UserResponse(" +
+            "u.id, u.email, u.firstName, u.lastName, r.name, CAST(u.status AS String), u.createdAt, u.lastLoginAt) " +
+            "FROM User u JOIN u.role r ";
+
+    String USER_RESPONSE_PROJECTION = USER_RESPONSE_SELECT +
+            "WHERE (:status IS NULL OR u.status = :status) " +
+            "AND (:role IS NULL OR r.name = :role) " +
+            // Callers escape % and _ in the prefix with a backslash, see UserServiceImpl.escapeLike
+            "AND (:emailPrefix IS NULL OR u.email LIKE CONCAT(:emailPrefix, '%') ESCAPE '\\') ";
+
+    @Query(USER_RESPONSE_SELECT + "WHERE u.id = :id")
+    Optional<UserResponse> findResponseById(Long id);
+
+    /**
+     * Keyset page of users with {@code id > afterId}, projected straight into DTOs.
+     */
+    @Query(USER_RESPONSE_PROJECTION + "AND u.id > :afterId ORDER BY u.id")
+    List<UserResponse> findPageAfter(Long afterId, User.UserStatus status, String role, String emailPrefix, Limit limit);
+
+    /**
+     * Streams every matching user through a database cursor; must be consumed inside a transaction.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(USER_RESPONSE_PROJECTION + "ORDER BY u.id")
+    Stream<UserResponse> streamAll(User.UserStatus status, String role, String emailPrefix);
 }
@@ -5,9 +5,10 @@ import com.intelliguard.userservice.userservice.entity.RefreshToken;
 import com.intelliguard.userservice.userservice.entity.Role;
 import com.intelliguard.userservice.userservice.entity.User;
 import com.intelliguard.userservice.userservice.repository.RefreshTokenRepository;
-import com.intelliguard.userservice.userservice.repository.RoleRepository;
 import com.intelliguard.userservice.userservice.repository.UserRepository;
+import com.intelliguard.userservice.userservice.service.RefreshTokenCache.CachedRefreshToken;
 import com.intelliguard.userservice.userservice.util.JwtUtil;
+import com.intelliguard.userservice.userservice.util.TokenHasher;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.BadCredentialsException;
@@ -16,6 +17,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.UUID;
 
 @Service
@@ -23,10 +25,14 @@ import java.util.UUID;
 public class AuthService {
 
     private final UserRepository userRepository;
-    private final RoleRepository roleRepository;
+    private final RoleRegistry roleRegistry;
     private final RefreshTokenRepository refreshTokenRepository;
     private final PasswordEncoder passwordEncoder;
     private final JwtUtil jwtUtil;
+    private final LoginActivityBuffer loginActivityBuffer;
+    private final LoginAttemptService loginAttemptService;
+    private final RefreshTokenCache refreshTokenCache;
+    private final UserProfileCache userProfileCache;
 
     @Value("${jwt.expiration:3600000}")
     private Long jwtExpiration;
@@ -34,6 +40,9 @@ public class AuthService {
     @Value("${jwt.refresh-expiration:604800000}")
     private Long refreshExpiration;
 
+    @Value("${auth.login-throttle.lock-duration-minutes:15}")
+    private long lockDurationMinutes;
+
     @Transactional
     public AuthResponse register(RegisterRequest request) {
         // Check if user already exists
@@ -42,8 +51,7 @@ public class AuthService {
         }
 
         // Get default role (VIEWER)
-        Role defaultRole = roleRepository.findByName("VIEWER")
-                .orElseThrow(() -> new IllegalStateException("Default role not found"));
+        Role defaultRole = roleRegistry.getRole(Role.RoleName.VIEWER.name());
 
         // Create user
         User user = User.builder()
@@ -61,17 +69,19 @@ public class AuthService {
         user = userRepository.save(user);
 
         // Generate tokens
-        String accessToken = jwtUtil.generateToken(user.getEmail(), user.getRole().getName(), user.getId());
+        String accessToken = jwtUtil.generateToken(user.getEmail(), user.getRole().getName(), user.getId(),
+                roleRegistry.permissionMask(user.getRole().getName()));
         String refreshTokenValue = jwtUtil.generateRefreshToken(user.getEmail());
 
         // Save refresh token
         RefreshToken refreshToken = RefreshToken.builder()
                 .user(user)
-                .token(refreshTokenValue)
+                .tokenHash(TokenHasher.sha256(refreshTokenValue))
                 .expiresAt(LocalDateTime.now().plusSeconds(refreshExpiration / 1000))
                 .revoked(false)
                 .build();
-        refreshTokenRepository.save(refreshToken);
+        refreshToken = refreshTokenRepository.save(refreshToken);
+        cacheRefreshToken(refreshToken.getTokenHash(), refreshToken.getId(), user.getId(), refreshToken.getExpiresAt());
 
         return AuthResponse.builder()
                 .accessToken(accessToken)
@@ -82,11 +92,22 @@ public class AuthService {
                 .build();
     }
 
-    @Transactional
-    public AuthResponse login(LoginRequest request) {
+    // The lock written on a failed attempt must survive the BadCredentialsException
+    @Transactional(noRollbackFor = BadCredentialsException.class)
+    public AuthResponse login(LoginRequest request, String clientIp) {
+        // Reject throttled email/IP pairs before touching the database or bcrypt
+        if (loginAttemptService.isBlocked(request.getEmail(), clientIp)) {
+            throw new LoginAttemptService.LoginThrottledException(
+                    loginAttemptService.retryAfterSeconds(request.getEmail(), clientIp));
+        }
+
         // Find user by email
         User user = userRepository.findByEmail(request.getEmail())
-                .orElseThrow(() -> new BadCredentialsException("Invalid email or password"));
+                .orElse(null);
+        if (user == null) {
+            loginAttemptService.recordFailure(request.getEmail(), clientIp);
+            throw new BadCredentialsException("Invalid email or password");
+        }
 
         // Check if account is locked
         if (!user.isAccountNonLocked()) {
@@ -100,93 +121,123 @@ public class AuthService {
 
         // Verify password
         if (!passwordEncoder.matches(request.getPassword(), user.getPasswordHash())) {
-            handleFailedLogin(user);
+            handleFailedLogin(user, clientIp);
             throw new BadCredentialsException("Invalid email or password");
         }
 
-        // Reset failed login attempts
-        user.setFailedLoginAttempts(0);
-        user.setLockedUntil(null);
-        user.setLastLoginAt(LocalDateTime.now());
-        userRepository.save(user);
+        // Reset failed login attempts, only touching the row when there is something to reset
+        loginAttemptService.reset(user.getEmail());
+        if (user.getFailedLoginAttempts() != 0 || user.getLockedUntil() != null) {
+            user.setFailedLoginAttempts(0);
+            user.setLockedUntil(null);
+            userRepository.save(user);
+            userProfileCache.invalidate(user.getId());
+        }
+
+        // lastLoginAt is written back asynchronously in batches
+        LocalDateTime now = LocalDateTime.now();
+        loginActivityBuffer.recordLogin(user.getId(), now);
 
         // Generate tokens
-        String accessToken = jwtUtil.generateToken(user.getEmail(), user.getRole().getName(), user.getId());
+        String accessToken = jwtUtil.generateToken(user.getEmail(), user.getRole().getName(), user.getId(),
+                roleRegistry.permissionMask(user.getRole().getName()));
         String refreshTokenValue = jwtUtil.generateRefreshToken(user.getEmail());
 
-        // Save refresh token (revoke old ones first)
-        refreshTokenRepository.revokeAllUserTokens(user, LocalDateTime.now());
+        // Revoke old refresh tokens and save the new one in a single round trip
+        String refreshTokenHash = TokenHasher.sha256(refreshTokenValue);
+        LocalDateTime refreshExpiresAt = now.plusSeconds(refreshExpiration / 1000);
+        Long refreshTokenId = refreshTokenRepository.rotateUserTokens(user.getId(), refreshTokenHash,
+                refreshExpiresAt, now);
+        cacheRefreshToken(refreshTokenHash, refreshTokenId, user.getId(), refreshExpiresAt);
 
-        RefreshToken refreshToken = RefreshToken.builder()
-                .user(user)
-                .token(refreshTokenValue)
-                .expiresAt(LocalDateTime.now().plusSeconds(refreshExpiration / 1000))
-                .revoked(false)
-                .build();
-        refreshTokenRepository.save(refreshToken);
+        UserResponse userResponse = mapToUserResponse(user);
+        userResponse.setLastLoginAt(now);
 
         return AuthResponse.builder()
                 .accessToken(accessToken)
                 .refreshToken(refreshTokenValue)
                 .tokenType("Bearer")
                 .expiresIn(jwtExpiration / 1000)
-                .user(mapToUserResponse(user))
+                .user(userResponse)
                 .build();
     }
 
     @Transactional
     public AuthResponse refreshToken(RefreshTokenRequest request) {
-        // Find refresh token
-        RefreshToken refreshToken = refreshTokenRepository.findByToken(request.getRefreshToken())
-                .orElseThrow(() -> new IllegalArgumentException("Invalid refresh token"));
+        String tokenHash = TokenHasher.sha256(request.getRefreshToken());
 
-        // Validate refresh token
-        if (!refreshToken.isValid()) {
-            throw new IllegalArgumentException("Refresh token is expired or revoked");
+        // Look the token up in the cache first, falling back to the database
+        CachedRefreshToken token = refreshTokenCache.get(tokenHash);
+        if (token == null) {
+            RefreshToken refreshToken = refreshTokenRepository.findByTokenHash(tokenHash)
+                    .orElseThrow(() -> new IllegalArgumentException("Invalid refresh token"));
+
+            // Validate refresh token
+            if (!refreshToken.isValid()) {
+                throw new IllegalArgumentException("Refresh token is expired or revoked");
+            }
+
+            token = new CachedRefreshToken(refreshToken.getId(), refreshToken.getUser().getId(),
+                    toEpochMillis(refreshToken.getExpiresAt()));
         }
 
-        // Get user
-        User user = refreshToken.getUser();
+        // Claims come from the user's current profile, not from when the token was issued, so a
+        // demoted, suspended or deleted user cannot keep refreshing with the old role.
+        // The profile cache is invalidated whenever the user row is written.
+        UserResponse user = userProfileCache.get(token.userId(), id -> userRepository.findResponseById(id).orElse(null));
+        if (user == null || !canRefresh(user)) {
+            refreshTokenCache.evict(tokenHash);
+            throw new IllegalArgumentException("Account is suspended or has been deleted");
+        }
 
         // Generate new access token
-        String accessToken = jwtUtil.generateToken(user.getEmail(), user.getRole().getName(), user.getId());
+        String accessToken = jwtUtil.generateToken(user.getEmail(), user.getRole(), user.getId(),
+                roleRegistry.permissionMask(user.getRole()));
 
-        // Optionally rotate refresh token
+        // Rotate refresh token: revoke the old one and create the new one in a single round trip.
+        // Revocation is checked by the statement itself, so a stale cache entry cannot rotate.
         String newRefreshTokenValue = jwtUtil.generateRefreshToken(user.getEmail());
+        String newTokenHash = TokenHasher.sha256(newRefreshTokenValue);
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime expiresAt = now.plusSeconds(refreshExpiration / 1000);
+        Long newTokenId = refreshTokenRepository.rotateToken(token.tokenId(), newTokenHash, expiresAt, now)
+                .orElseThrow(() -> new IllegalArgumentException("Refresh token is expired or revoked"));
 
-        // Revoke old refresh token
-        refreshToken.setRevoked(true);
-        refreshToken.setRevokedAt(LocalDateTime.now());
-        refreshTokenRepository.save(refreshToken);
-
-        // Create new refresh token
-        RefreshToken newRefreshToken = RefreshToken.builder()
-                .user(user)
-                .token(newRefreshTokenValue)
-                .expiresAt(LocalDateTime.now().plusSeconds(refreshExpiration / 1000))
-                .revoked(false)
-                .build();
-        refreshTokenRepository.save(newRefreshToken);
+        refreshTokenCache.evict(tokenHash);
+        cacheRefreshToken(newTokenHash, newTokenId, user.getId(), expiresAt);
 
+        // Per the API specification the refresh response carries tokens only
         return AuthResponse.builder()
                 .accessToken(accessToken)
                 .refreshToken(newRefreshTokenValue)
                 .tokenType("Bearer")
                 .expiresIn(jwtExpiration / 1000)
-                .user(mapToUserResponse(user))
                 .build();
     }
 
-    private void handleFailedLogin(User user) {
-        int attempts = user.getFailedLoginAttempts() + 1;
-        user.setFailedLoginAttempts(attempts);
+    private void handleFailedLogin(User user, String clientIp) {
+        int attempts = loginAttemptService.recordFailure(user.getEmail(), clientIp);
 
-        // Lock account after 5 failed attempts for 15 minutes
-        if (attempts >= 5) {
-            user.setLockedUntil(LocalDateTime.now().plusMinutes(15));
+        // Lock account once the sliding window reaches the threshold; this is the only write to users
+        if (loginAttemptService.isLockThreshold(attempts)) {
+            user.setFailedLoginAttempts(attempts);
+            user.setLockedUntil(LocalDateTime.now().plusMinutes(lockDurationMinutes));
+            userRepository.save(user);
+            userProfileCache.invalidate(user.getId());
         }
+    }
+
+    private static boolean canRefresh(UserResponse user) {
+        return !User.UserStatus.SUSPENDED.name().equals(user.getStatus())
+                && !User.UserStatus.DELETED.name().equals(user.getStatus());
+    }
+
+    private void cacheRefreshToken(String tokenHash, Long tokenId, Long userId, LocalDateTime expiresAt) {
+        refreshTokenCache.put(tokenHash, new CachedRefreshToken(tokenId, userId, toEpochMillis(expiresAt)));
+    }
 
-        userRepository.save(user);
+    private static long toEpochMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
     }
 
     private UserResponse mapToUserResponse(User user) {
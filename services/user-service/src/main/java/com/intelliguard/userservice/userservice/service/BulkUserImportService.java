@@ -0,0 +1,342 @@
+package com.intelliguard.userservice.userservice.service;
+
+import com.intelliguard.userservice.userservice.dto.BulkImportStatus;
+import com.intelliguard.userservice.userservice.dto.RegisterRequest;
+import com.intelliguard.userservice.userservice.entity.Role;
+import com.intelliguard.userservice.userservice.entity.User;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Imports users from CSV ({@code email,password,firstName,lastName}, optional header row).
+ * Fields may be quoted as in RFC 4180, but a quoted field cannot span lines; such rows are
+ * rejected. The upload is spooled to disk and processed in chunks: emails that already exist are
+ * filtered out with one query per chunk, passwords are hashed in parallel on a bounded pool, and
+ * each chunk is written with one multi-row insert that returns the rows it actually created.
+ * At most {@code max-concurrent-jobs} imports run at once and {@code max-queued-jobs} wait; further
+ * uploads are refused with {@link ImportQueueFullException} instead of piling up spool files.
+ */
+@Service
+@RequiredArgsConstructor
+public class BulkUserImportService {
+
+    // Rows are passed as one array per column; emails inserted concurrently elsewhere are skipped and not counted
+    private static final String INSERT_USERS_SQL =
+            "WITH inserted AS (" +
+            "INSERT INTO users (email, password_hash, first_name, last_name, role_id, status, failed_login_attempts, " +
+            "email_verified, email_verification_token, created_at, updated_at) " +
+            "SELECT r.email, r.password_hash, r.first_name, r.last_name, ?, ?, 0, false, r.verification_token, ?, ? " +
+            "FROM unnest(?::text[], ?::text[], ?::text[], ?::text[], ?::text[]) " +
+            "AS r(email, password_hash, first_name, last_name, verification_token) " +
+            "ON CONFLICT (email) DO NOTHING RETURNING id) " +
+            "SELECT count(*) FROM inserted";
+
+    private static final String EXISTING_EMAILS_SQL = "SELECT email FROM users WHERE email IN (:emails)";
+
+    private static final long QUEUE_FULL_RETRY_AFTER_SECONDS = 30;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final PasswordEncoder passwordEncoder;
+    private final RoleRegistry roleRegistry;
+    private final Validator validator;
+
+    @Value("${user.import.batch-size:500}")
+    private int batchSize;
+
+    @Value("${user.import.hash-threads:0}") // 0 = one per available processor
+    private int hashThreads;
+
+    @Value("${user.import.max-concurrent-jobs:2}")
+    private int maxConcurrentJobs;
+
+    @Value("${user.import.max-queued-jobs:8}")
+    private int maxQueuedJobs;
+
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+
+    private ExecutorService hashPool;
+    private ThreadPoolExecutor jobPool;
+
+    @PostConstruct
+    void init() {
+        int threads = hashThreads > 0 ? hashThreads : Runtime.getRuntime().availableProcessors();
+        hashPool = Executors.newFixedThreadPool(threads);
+        jobPool = new ThreadPoolExecutor(maxConcurrentJobs, maxConcurrentJobs, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(maxQueuedJobs));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        jobPool.shutdownNow();
+        hashPool.shutdownNow();
+    }
+
+    public BulkImportStatus submit(InputStream csv) throws IOException {
+        // Cheap early refusal before copying the upload; the execute below is the authoritative check
+        if (jobPool.getQueue().remainingCapacity() == 0) {
+            throw new ImportQueueFullException(QUEUE_FULL_RETRY_AFTER_SECONDS);
+        }
+        Path spool = Files.createTempFile("user-import-", ".csv");
+        Files.copy(csv, spool, StandardCopyOption.REPLACE_EXISTING);
+
+        // Forget jobs that finished more than a day ago
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(1);
+        jobs.values().removeIf(existing -> existing.finishedAt != null && existing.finishedAt.isBefore(cutoff));
+
+        Job job = new Job(UUID.randomUUID().toString());
+        jobs.put(job.id, job);
+        try {
+            jobPool.execute(() -> run(job, spool));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.id);
+            Files.deleteIfExists(spool);
+            throw new ImportQueueFullException(QUEUE_FULL_RETRY_AFTER_SECONDS);
+        }
+        return job.toStatus();
+    }
+
+    public BulkImportStatus getStatus(String jobId) {
+        Job job = jobs.get(jobId);
+        return job == null ? null : job.toStatus();
+    }
+
+    private void run(Job job, Path spool) {
+        job.status = "RUNNING";
+        job.startedAt = LocalDateTime.now();
+
+        try (BufferedReader reader = Files.newBufferedReader(spool, StandardCharsets.UTF_8)) {
+            Long roleId = roleRegistry.getRole(Role.RoleName.VIEWER.name()).getId();
+            List<RegisterRequest> chunk = new ArrayList<>(batchSize);
+            String line;
+            boolean first = true;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                List<String> fields = parseCsvLine(line);
+                if (first) {
+                    first = false;
+                    if (isHeader(fields)) {
+                        continue;
+                    }
+                }
+
+                RegisterRequest request = toRequest(fields);
+                if (request == null || !validator.validate(request).isEmpty()) {
+                    job.processed.incrementAndGet();
+                    job.rejected.incrementAndGet();
+                    continue;
+                }
+                chunk.add(request);
+                if (chunk.size() == batchSize) {
+                    importChunk(job, chunk, roleId);
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                importChunk(job, chunk, roleId);
+            }
+            job.status = "COMPLETED";
+        } catch (RuntimeException | IOException e) {
+            job.status = "FAILED";
+            job.error = e.getMessage();
+        } finally {
+            job.finishedAt = LocalDateTime.now();
+            try {
+                Files.deleteIfExists(spool);
+            } catch (IOException e) {
+                // Temp directory is cleaned up by the OS
+            }
+        }
+    }
+
+    private void importChunk(Job job, List<RegisterRequest> chunk, Long roleId) {
+        // Drop emails that already exist (or repeat within the chunk) before spending bcrypt time on them
+        Set<String> existing = new HashSet<>(jdbcTemplate.queryForList(EXISTING_EMAILS_SQL,
+                new MapSqlParameterSource("emails", chunk.stream().map(RegisterRequest::getEmail).toList()),
+                String.class));
+        List<RegisterRequest> fresh = new ArrayList<>(chunk.size());
+        for (RegisterRequest request : chunk) {
+            if (existing.add(request.getEmail())) {
+                fresh.add(request);
+            } else {
+                job.duplicates.incrementAndGet();
+            }
+        }
+
+        List<CompletableFuture<String>> hashes = fresh.stream()
+                .map(request -> CompletableFuture.supplyAsync(() -> passwordEncoder.encode(request.getPassword()), hashPool))
+                .toList();
+
+        if (!fresh.isEmpty()) {
+            int inserted = insertUsers(fresh, hashes.stream().map(CompletableFuture::join).toList(), roleId);
+            job.imported.addAndGet(inserted);
+            job.duplicates.addAndGet(fresh.size() - inserted);
+        }
+        job.processed.addAndGet(chunk.size());
+    }
+
+    /**
+     * Inserts the users in one statement and returns how many rows were actually created.
+     */
+    int insertUsers(List<RegisterRequest> users, List<String> passwordHashes, Long roleId) {
+        int size = users.size();
+        String[] emails = new String[size];
+        String[] firstNames = new String[size];
+        String[] lastNames = new String[size];
+        String[] verificationTokens = new String[size];
+        for (int i = 0; i < size; i++) {
+            RegisterRequest request = users.get(i);
+            emails[i] = request.getEmail();
+            firstNames[i] = request.getFirstName();
+            lastNames[i] = request.getLastName();
+            verificationTokens[i] = UUID.randomUUID().toString();
+        }
+        String[] hashes = passwordHashes.toArray(new String[0]);
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        Integer inserted = transactionTemplate.execute(status -> jdbcTemplate.getJdbcOperations().queryForObject(
+                INSERT_USERS_SQL, Integer.class, roleId, User.UserStatus.PENDING_VERIFICATION.name(), now, now,
+                emails, hashes, firstNames, lastNames, verificationTokens));
+        return inserted == null ? 0 : inserted;
+    }
+
+    private static boolean isHeader(List<String> fields) {
+        return fields != null && fields.size() >= 2
+                && fields.get(0).trim().equalsIgnoreCase("email")
+                && fields.get(1).trim().equalsIgnoreCase("password");
+    }
+
+    private static RegisterRequest toRequest(List<String> fields) {
+        if (fields == null || fields.size() < 2) {
+            return null;
+        }
+        RegisterRequest request = new RegisterRequest();
+        request.setEmail(fields.get(0).trim());
+        request.setPassword(fields.get(1).trim());
+        request.setFirstName(fields.size() > 2 && !fields.get(2).isBlank() ? fields.get(2).trim() : null);
+        request.setLastName(fields.size() > 3 && !fields.get(3).isBlank() ? fields.get(3).trim() : null);
+        return request;
+    }
+
+    /**
+     * Splits one CSV line into fields. Quoted fields may contain commas and doubled quotes.
+     * Returns null for a malformed line: an unterminated quote (a field spanning lines) or
+     * text after a closing quote.
+     */
+    static List<String> parseCsvLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        int i = 0;
+        while (true) {
+            if (i < line.length() && line.charAt(i) == '"') {
+                i++;
+                while (true) {
+                    if (i >= line.length()) {
+                        return null;
+                    }
+                    char c = line.charAt(i++);
+                    if (c != '"') {
+                        field.append(c);
+                    } else if (i < line.length() && line.charAt(i) == '"') {
+                        field.append('"');
+                        i++;
+                    } else {
+                        break;
+                    }
+                }
+                if (i < line.length() && line.charAt(i) != ',') {
+                    return null;
+                }
+            } else {
+                while (i < line.length() && line.charAt(i) != ',') {
+                    field.append(line.charAt(i++));
+                }
+            }
+            fields.add(field.toString());
+            field.setLength(0);
+            if (i >= line.length()) {
+                return fields;
+            }
+            i++; // the comma
+        }
+    }
+
+    public static class ImportQueueFullException extends RuntimeException {
+
+        private final long retryAfterSeconds;
+
+        public ImportQueueFullException(long retryAfterSeconds) {
+            super("Too many imports are pending, please try again later");
+            this.retryAfterSeconds = retryAfterSeconds;
+        }
+
+        public long getRetryAfterSeconds() {
+            return retryAfterSeconds;
+        }
+    }
+
+    private static final class Job {
+        private final String id;
+        private volatile String status = "QUEUED";
+        private volatile String error;
+        private volatile LocalDateTime startedAt;
+        private volatile LocalDateTime finishedAt;
+        private final AtomicLong processed = new AtomicLong();
+        private final AtomicLong imported = new AtomicLong();
+        private final AtomicLong duplicates = new AtomicLong();
+        private final AtomicLong rejected = new AtomicLong();
+
+        private Job(String id) {
+            this.id = id;
+        }
+
+        private BulkImportStatus toStatus() {
+            return BulkImportStatus.builder()
+                    .jobId(id)
+                    .status(status)
+                    .processed(processed.get())
+                    .imported(imported.get())
+                    .duplicates(duplicates.get())
+                    .rejected(rejected.get())
+                    .error(error)
+                    .startedAt(startedAt)
+                    .finishedAt(finishedAt)
+                    .build();
+        }
+    }
+}
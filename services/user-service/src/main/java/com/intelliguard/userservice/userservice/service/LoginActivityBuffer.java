@@ -0,0 +1,70 @@
+package com.intelliguard.userservice.userservice.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Buffers low-value login bookkeeping (currently {@code lastLoginAt}) and writes it
+ * back in periodic JDBC batches instead of one UPDATE per login.
+ */
+@Component
+@RequiredArgsConstructor
+public class LoginActivityBuffer {
+
+    private static final String UPDATE_LAST_LOGIN_SQL =
+            "UPDATE users SET last_login_at = ? WHERE id = ? AND (last_login_at IS NULL OR last_login_at < ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final UserProfileCache userProfileCache;
+
+    private final Map<Long, LocalDateTime> pendingLogins = new ConcurrentHashMap<>();
+
+    @Value("${auth.login-activity.batch-size:500}")
+    private int batchSize;
+
+    public void recordLogin(Long userId, LocalDateTime loginAt) {
+        // Keep only the most recent login per user; older ones would be overwritten anyway
+        pendingLogins.merge(userId, loginAt, (previous, current) -> current.isAfter(previous) ? current : previous);
+    }
+
+    @Scheduled(fixedDelayString = "${auth.login-activity.flush-interval-ms:5000}")
+    public void flush() {
+        if (pendingLogins.isEmpty()) {
+            return;
+        }
+
+        List<Object[]> batch = new ArrayList<>();
+        List<Long> userIds = new ArrayList<>();
+        for (Long userId : pendingLogins.keySet()) {
+            LocalDateTime loginAt = pendingLogins.remove(userId);
+            if (loginAt != null) {
+                Timestamp timestamp = Timestamp.valueOf(loginAt);
+                batch.add(new Object[]{timestamp, userId, timestamp});
+                userIds.add(userId);
+            }
+        }
+
+        for (int from = 0; from < batch.size(); from += batchSize) {
+            jdbcTemplate.batchUpdate(UPDATE_LAST_LOGIN_SQL, batch.subList(from, Math.min(from + batchSize, batch.size())));
+        }
+
+        // lastLoginAt is part of the cached profile
+        userProfileCache.invalidate(userIds);
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+}
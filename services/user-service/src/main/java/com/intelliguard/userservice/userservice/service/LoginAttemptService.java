@@ -0,0 +1,224 @@
+package com.intelliguard.userservice.userservice.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tracks failed logins in sliding windows keyed by email and by client IP.
+ * Counts are kept locally and in Redis, so a lockout seen by one instance is seen by all,
+ * and the users table is only written when a lock actually starts. The local view tracks at most
+ * {@code auth.login-throttle.max-tracked-keys} windows; past that, new keys are counted in Redis only.
+ */
+@Service
+@RequiredArgsConstructor
+public class LoginAttemptService {
+
+    private static final String EMAIL_KEY_PREFIX = "login:fail:email:";
+    private static final String IP_KEY_PREFIX = "login:fail:ip:";
+
+    // KEYS[1] = window key, ARGV[1] = now (ms), ARGV[2] = window (ms), ARGV[3] = unique member
+    private static final RedisScript<Long> RECORD_SCRIPT = new DefaultRedisScript<>(
+            "redis.call('ZREMRANGEBYSCORE', KEYS[1], 0, ARGV[1] - ARGV[2]) " +
+            "redis.call('ZADD', KEYS[1], ARGV[1], ARGV[3]) " +
+            "redis.call('PEXPIRE', KEYS[1], ARGV[2]) " +
+            "return redis.call('ZCARD', KEYS[1])", Long.class);
+
+    // KEYS[1] = email key, KEYS[2] = ip key, ARGV[1] = window start (ms)
+    // Returns the email and ip counts packed as email * 2^20 + ip
+    private static final RedisScript<Long> COUNT_SCRIPT = new DefaultRedisScript<>(
+            "local e = redis.call('ZCOUNT', KEYS[1], ARGV[1], '+inf') " +
+            "local i = redis.call('ZCOUNT', KEYS[2], ARGV[1], '+inf') " +
+            "return e * 1048576 + i", Long.class);
+
+    public static class LoginThrottledException extends RuntimeException {
+
+        private final long retryAfterSeconds;
+
+        public LoginThrottledException(long retryAfterSeconds) {
+            super("Too many failed login attempts, please try again later");
+            this.retryAfterSeconds = retryAfterSeconds;
+        }
+
+        public long getRetryAfterSeconds() {
+            return retryAfterSeconds;
+        }
+    }
+
+    private final StringRedisTemplate redisTemplate;
+
+    private final Map<String, Deque<Long>> localWindows = new ConcurrentHashMap<>();
+
+    @Value("${auth.login-throttle.max-attempts-per-email:5}")
+    private int maxAttemptsPerEmail;
+
+    @Value("${auth.login-throttle.max-attempts-per-ip:20}")
+    private int maxAttemptsPerIp;
+
+    @Value("${auth.login-throttle.window-ms:900000}") // 15 minutes
+    private long windowMs;
+
+    @Value("${auth.login-throttle.max-tracked-keys:100000}")
+    private int maxTrackedKeys;
+
+    private volatile long lastEvictionMillis;
+
+    public boolean isBlocked(String email, String clientIp) {
+        String emailKey = emailKey(email);
+        String ipKey = ipKey(clientIp);
+        long now = System.currentTimeMillis();
+
+        // Local view first: no network call while an attack is hitting this instance
+        if (localCount(emailKey, now) >= maxAttemptsPerEmail || localCount(ipKey, now) >= maxAttemptsPerIp) {
+            return true;
+        }
+
+        try {
+            Long packed = redisTemplate.execute(COUNT_SCRIPT, List.of(emailKey, ipKey), String.valueOf(now - windowMs));
+            if (packed == null) {
+                return false;
+            }
+            return (packed >> 20) >= maxAttemptsPerEmail || (packed & 0xFFFFF) >= maxAttemptsPerIp;
+        } catch (DataAccessException e) {
+            // Redis unavailable: the local view above is the best we have
+            return false;
+        }
+    }
+
+    /**
+     * Records a failed attempt and returns the number of failures for the email in the current window.
+     */
+    public int recordFailure(String email, String clientIp) {
+        String emailKey = emailKey(email);
+        String ipKey = ipKey(clientIp);
+        long now = System.currentTimeMillis();
+
+        int emailCount = recordLocal(emailKey, now);
+        recordLocal(ipKey, now);
+
+        try {
+            Long redisEmailCount = recordRemote(emailKey, now);
+            recordRemote(ipKey, now);
+            if (redisEmailCount != null) {
+                emailCount = Math.max(emailCount, redisEmailCount.intValue());
+            }
+        } catch (DataAccessException e) {
+            // Fall back to the local count
+        }
+        return emailCount;
+    }
+
+    /**
+     * Seconds until enough locally seen failures leave the window for the email and IP to be let
+     * through again; the whole window when only Redis knows about the failures.
+     */
+    public long retryAfterSeconds(String email, String clientIp) {
+        long now = System.currentTimeMillis();
+        long retryAfterMs = Math.max(localRetryAfterMs(emailKey(email), maxAttemptsPerEmail, now),
+                localRetryAfterMs(ipKey(clientIp), maxAttemptsPerIp, now));
+        if (retryAfterMs == 0) {
+            retryAfterMs = windowMs;
+        }
+        return Math.max(1, (retryAfterMs + 999) / 1000);
+    }
+
+    public boolean isLockThreshold(int attempts) {
+        return attempts >= maxAttemptsPerEmail;
+    }
+
+    public void reset(String email) {
+        String emailKey = emailKey(email);
+        localWindows.remove(emailKey);
+        try {
+            redisTemplate.delete(emailKey);
+        } catch (DataAccessException e) {
+            // Window expires on its own
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${auth.login-throttle.cleanup-interval-ms:60000}")
+    public void evictExpiredWindows() {
+        long now = System.currentTimeMillis();
+        lastEvictionMillis = now;
+        localWindows.entrySet().removeIf(entry -> localCount(entry.getKey(), now) == 0);
+    }
+
+    private Long recordRemote(String key, long now) {
+        return redisTemplate.execute(RECORD_SCRIPT, List.of(key),
+                String.valueOf(now), String.valueOf(windowMs), now + ":" + UUID.randomUUID());
+    }
+
+    private int recordLocal(String key, long now) {
+        Deque<Long> window = localWindows.get(key);
+        if (window == null) {
+            if (localWindows.size() >= maxTrackedKeys && now - lastEvictionMillis > 1000) {
+                evictExpiredWindows();
+            }
+            if (localWindows.size() >= maxTrackedKeys) {
+                // Flooded with distinct emails or IPs: leave new keys to Redis rather than grow without bound
+                return 0;
+            }
+            window = localWindows.computeIfAbsent(key, k -> new ArrayDeque<>());
+        }
+        synchronized (window) {
+            trim(window, now);
+            window.addLast(now);
+            return window.size();
+        }
+    }
+
+    private int localCount(String key, long now) {
+        Deque<Long> window = localWindows.get(key);
+        if (window == null) {
+            return 0;
+        }
+        synchronized (window) {
+            trim(window, now);
+            return window.size();
+        }
+    }
+
+    private long localRetryAfterMs(String key, int limit, long now) {
+        Deque<Long> window = localWindows.get(key);
+        if (window == null) {
+            return 0;
+        }
+        synchronized (window) {
+            trim(window, now);
+            if (window.size() < limit) {
+                return 0;
+            }
+            // Unblocked once the failure that brings the count back under the limit expires
+            Long expiring = window.stream().skip(window.size() - limit).findFirst().orElseThrow();
+            return expiring + windowMs - now;
+        }
+    }
+
+    private void trim(Deque<Long> window, long now) {
+        long windowStart = now - windowMs;
+        while (!window.isEmpty() && window.peekFirst() <= windowStart) {
+            window.pollFirst();
+        }
+    }
+
+    private static String emailKey(String email) {
+        return EMAIL_KEY_PREFIX + email.toLowerCase(Locale.ROOT);
+    }
+
+    private static String ipKey(String clientIp) {
+        return IP_KEY_PREFIX + (clientIp == null ? "unknown" : clientIp);
+    }
+}
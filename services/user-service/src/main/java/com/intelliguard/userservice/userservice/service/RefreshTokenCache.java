@@ -0,0 +1,102 @@
+package com.intelliguard.userservice.userservice.service;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Two-tier (local LRU + Redis) cache of live refresh tokens, keyed by token hash.
+ * Entries only short-circuit the lookup; revocation is still enforced by the rotation
+ * statement in the database, so a stale entry can never rotate a revoked token. Entries hold
+ * only what cannot change for the life of a token; the user's role and status are read fresh.
+ */
+@Component
+@RequiredArgsConstructor
+public class RefreshTokenCache {
+
+    // v2: entries no longer carry role and email
+    private static final String KEY_PREFIX = "refresh:v2:";
+
+    private final StringRedisTemplate redisTemplate;
+
+    @Value("${auth.refresh-token.local-cache-size:10000}")
+    private int localCacheSize;
+
+    private Map<String, CachedRefreshToken> localCache;
+
+    @PostConstruct
+    void init() {
+        localCache = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedRefreshToken> eldest) {
+                return size() > localCacheSize;
+            }
+        });
+    }
+
+    public record CachedRefreshToken(Long tokenId, Long userId, long expiresAtMillis) {
+
+        boolean isExpired() {
+            return System.currentTimeMillis() >= expiresAtMillis;
+        }
+
+        String serialize() {
+            return tokenId + "|" + userId + "|" + expiresAtMillis;
+        }
+
+        static CachedRefreshToken deserialize(String value) {
+            String[] parts = value.split("\\|", 3);
+            return new CachedRefreshToken(Long.valueOf(parts[0]), Long.valueOf(parts[1]), Long.parseLong(parts[2]));
+        }
+    }
+
+    public CachedRefreshToken get(String tokenHash) {
+        CachedRefreshToken cached = localCache.get(tokenHash);
+        if (cached == null) {
+            try {
+                String value = redisTemplate.opsForValue().get(KEY_PREFIX + tokenHash);
+                if (value != null) {
+                    cached = CachedRefreshToken.deserialize(value);
+                    localCache.put(tokenHash, cached);
+                }
+            } catch (DataAccessException e) {
+                return null;
+            }
+        }
+        if (cached != null && cached.isExpired()) {
+            evict(tokenHash);
+            return null;
+        }
+        return cached;
+    }
+
+    public void put(String tokenHash, CachedRefreshToken token) {
+        long ttlMillis = token.expiresAtMillis() - System.currentTimeMillis();
+        if (ttlMillis <= 0) {
+            return;
+        }
+        localCache.put(tokenHash, token);
+        try {
+            redisTemplate.opsForValue().set(KEY_PREFIX + tokenHash, token.serialize(), Duration.ofMillis(ttlMillis));
+        } catch (DataAccessException e) {
+            // Local tier still holds it; other instances fall back to the database
+        }
+    }
+
+    public void evict(String tokenHash) {
+        localCache.remove(tokenHash);
+        try {
+            redisTemplate.delete(KEY_PREFIX + tokenHash);
+        } catch (DataAccessException e) {
+            // Entry expires on its own
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.intelliguard.userservice.userservice.service;
+
+import com.intelliguard.userservice.userservice.repository.RefreshTokenRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+/**
+ * Periodically deletes expired refresh tokens. Rows are removed in small chunks, each in its
+ * own transaction, so the purge never holds long locks on the table.
+ */
+@Component
+@RequiredArgsConstructor
+public class RefreshTokenPurgeJob {
+
+    private final RefreshTokenRepository refreshTokenRepository;
+
+    @Value("${auth.refresh-token.purge-batch-size:1000}")
+    private int batchSize;
+
+    @Value("${auth.refresh-token.purge-max-batches:100}")
+    private int maxBatches;
+
+    @Scheduled(cron = "${auth.refresh-token.purge-cron:0 15 * * * *}")
+    public void purgeExpiredTokens() {
+        LocalDateTime now = LocalDateTime.now();
+        for (int batch = 0; batch < maxBatches; batch++) {
+            int deleted = refreshTokenRepository.deleteExpiredTokensBatch(now, batchSize);
+            if (deleted < batchSize) {
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.intelliguard.userservice.userservice.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.intelliguard.userservice.userservice.entity.Permission;
+import com.intelliguard.userservice.userservice.entity.Role;
+import com.intelliguard.userservice.userservice.repository.RoleRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Immutable in-memory view of the roles table with each role's permissions compiled to a
+ * bit mask (see {@link Permission}). The snapshot is swapped atomically whenever the table changes.
+ * A table that does not compile (e.g. an unknown permission name) fails startup; on a later
+ * refresh it is logged and the previous snapshot stays in use.
+ */
+@Service
+@RequiredArgsConstructor
+public class RoleRegistry {
+
+    private static final Logger log = LoggerFactory.getLogger(RoleRegistry.class);
+
+    private static final TypeReference<List<String>> PERMISSION_LIST = new TypeReference<>() {
+    };
+
+    private final RoleRepository roleRepository;
+    private final ObjectMapper objectMapper;
+
+    private volatile Snapshot snapshot = new Snapshot(Map.of(), null, 0L);
+
+    public record CompiledRole(Role role, long permissionMask) {
+    }
+
+    private record Snapshot(Map<String, CompiledRole> roles, LocalDateTime version, long count) {
+    }
+
+    @PostConstruct
+    public void load() {
+        List<Role> roles = roleRepository.findAll();
+        Map<String, CompiledRole> compiled = new HashMap<>();
+        LocalDateTime version = null;
+        for (Role role : roles) {
+            compiled.put(role.getName(), new CompiledRole(role, compile(role)));
+            if (version == null || (role.getUpdatedAt() != null && role.getUpdatedAt().isAfter(version))) {
+                version = role.getUpdatedAt();
+            }
+        }
+        snapshot = new Snapshot(Map.copyOf(compiled), version, roles.size());
+    }
+
+    @Scheduled(fixedDelayString = "${auth.roles.refresh-interval-ms:60000}")
+    public void refreshIfChanged() {
+        Snapshot current = snapshot;
+        LocalDateTime latest = roleRepository.findLatestUpdatedAt().orElse(null);
+        if (!Objects.equals(latest, current.version()) || roleRepository.count() != current.count()) {
+            try {
+                load();
+            } catch (IllegalStateException e) {
+                log.error("Roles table changed but could not be compiled; keeping the previous permissions", e);
+            }
+        }
+    }
+
+    public Role getRole(String name) {
+        CompiledRole compiled = snapshot.roles().get(name);
+        if (compiled == null) {
+            throw new IllegalStateException("Role not found: " + name);
+        }
+        return compiled.role();
+    }
+
+    public long permissionMask(String roleName) {
+        CompiledRole compiled = snapshot.roles().get(roleName);
+        return compiled == null ? 0L : compiled.permissionMask();
+    }
+
+    private long compile(Role role) {
+        try {
+            return Permission.maskOf(objectMapper.readValue(role.getPermissions(), PERMISSION_LIST));
+        } catch (JsonProcessingException | IllegalArgumentException e) {
+            throw new IllegalStateException("Invalid permissions for role " + role.getName(), e);
+        }
+    }
+}
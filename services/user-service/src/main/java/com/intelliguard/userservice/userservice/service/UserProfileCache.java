@@ -0,0 +1,297 @@
+package com.intelliguard.userservice.userservice.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.intelliguard.userservice.userservice.dto.UserResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Read-through cache of {@link UserResponse} projections: a bounded local LRU in front of Redis.
+ * Only one load per user id runs at a time on an instance; concurrent callers share its result.
+ * Invalidations delete the Redis entry and are broadcast over pub/sub so every instance drops its
+ * local copy. Local entries also expire after a short TTL (never longer than the Redis TTL), so
+ * an instance that missed an invalidation message stops serving the stale profile soon after.
+ * <p>
+ * A load that overlaps an invalidation must not write its (possibly stale) result back. Locally,
+ * each invalidation bumps a generation counter for the id and loads only cache what they read
+ * if the generation is unchanged. In Redis, invalidation also increments a version key, and
+ * the write-back is a compare-and-set against the version read before loading.
+ */
+@Component
+@RequiredArgsConstructor
+public class UserProfileCache {
+
+    public static final String INVALIDATION_CHANNEL = "user-profile-invalidation";
+
+    private static final String KEY_PREFIX = "user:profile:";
+    private static final String VERSION_KEY_PREFIX = "user:profile:version:";
+    private static final int GENERATION_STRIPES = 1024;
+
+    // KEYS[1] = profile key, KEYS[2] = version key, ARGV[1] = version seen before loading ('' if none),
+    // ARGV[2] = profile JSON, ARGV[3] = ttl seconds
+    static final RedisScript<Long> WRITE_SCRIPT = new DefaultRedisScript<>(
+            "if (redis.call('GET', KEYS[2]) or '') ~= ARGV[1] then return 0 end " +
+            "redis.call('SET', KEYS[1], ARGV[2], 'EX', ARGV[3]) " +
+            "return 1", Long.class);
+
+    // KEYS = profile key and version key for each id, ARGV[1] = version ttl seconds
+    static final RedisScript<Long> INVALIDATE_SCRIPT = new DefaultRedisScript<>(
+            "for i = 1, #KEYS, 2 do " +
+            "redis.call('DEL', KEYS[i]) " +
+            "redis.call('INCR', KEYS[i + 1]) " +
+            "redis.call('EXPIRE', KEYS[i + 1], ARGV[1]) " +
+            "end " +
+            "return #KEYS / 2", Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${user.profile-cache.local-size:10000}")
+    private int localSize;
+
+    @Value("${user.profile-cache.ttl-seconds:300}")
+    private long ttlSeconds;
+
+    @Value("${user.profile-cache.local-ttl-seconds:30}")
+    private long localTtlSeconds;
+
+    private final Map<Long, CompletableFuture<UserResponse>> inFlight = new ConcurrentHashMap<>();
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+
+    private record RemoteEntry(UserResponse profile, String version) {
+    }
+
+    private record LocalEntry(UserResponse profile, long expiresAtMillis) {
+    }
+
+    private Map<Long, LocalEntry> localCache;
+    private long localTtlMillis;
+    private Counter localHits;
+    private Counter redisHits;
+    private Counter misses;
+    private Timer loadTimer;
+
+    @PostConstruct
+    void init() {
+        localTtlMillis = Math.min(localTtlSeconds, ttlSeconds) * 1000;
+        localCache = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, LocalEntry> eldest) {
+                return size() > localSize;
+            }
+        });
+        localHits = Counter.builder("user.profile.cache.requests").tag("result", "local_hit").register(meterRegistry);
+        redisHits = Counter.builder("user.profile.cache.requests").tag("result", "redis_hit").register(meterRegistry);
+        misses = Counter.builder("user.profile.cache.requests").tag("result", "miss").register(meterRegistry);
+        loadTimer = Timer.builder("user.profile.cache.load").publishPercentiles(0.5, 0.95, 0.99).register(meterRegistry);
+        Gauge.builder("user.profile.cache.hit.ratio", this, UserProfileCache::hitRatio).register(meterRegistry);
+        Gauge.builder("user.profile.cache.local.size", localCache, Map::size).register(meterRegistry);
+    }
+
+    public UserResponse get(Long id, Function<Long, UserResponse> loader) {
+        UserResponse cached = getLocal(id);
+        if (cached != null) {
+            localHits.increment();
+            return cached;
+        }
+
+        // Captured before anything is read, so an invalidation from here on is noticed
+        long generation = generations.get(stripe(id));
+        RemoteEntry remote = readRemote(id);
+        if (remote != null && remote.profile() != null) {
+            redisHits.increment();
+            putLocal(id, remote.profile(), generation);
+            return remote.profile();
+        }
+
+        misses.increment();
+        CompletableFuture<UserResponse> pending = new CompletableFuture<>();
+        CompletableFuture<UserResponse> existing = inFlight.putIfAbsent(id, pending);
+        if (existing != null) {
+            return join(existing);
+        }
+
+        try {
+            UserResponse loaded = loadTimer.record(() -> loader.apply(id));
+            if (loaded != null && putLocal(id, loaded, generation) && remote != null) {
+                writeRemote(id, loaded, remote.version());
+            }
+            pending.complete(loaded);
+            return loaded;
+        } catch (RuntimeException e) {
+            pending.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(id, pending);
+        }
+    }
+
+    /**
+     * Invalidates the given users on every instance, after the current transaction commits if one is active.
+     */
+    public void invalidate(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    publishInvalidation(ids);
+                }
+            });
+        } else {
+            publishInvalidation(ids);
+        }
+    }
+
+    public void invalidate(Long id) {
+        invalidate(List.of(id));
+    }
+
+    /**
+     * Handles an invalidation message from {@link #INVALIDATION_CHANNEL}: a comma separated list of user ids.
+     */
+    public void onInvalidation(String message) {
+        List<Long> ids = new ArrayList<>();
+        for (String id : message.split(",")) {
+            if (!id.isBlank()) {
+                ids.add(Long.valueOf(id.trim()));
+            }
+        }
+        evictLocal(ids);
+    }
+
+    private void publishInvalidation(Collection<Long> ids) {
+        evictLocal(ids);
+        try {
+            List<String> keys = new ArrayList<>(ids.size() * 2);
+            for (Long id : ids) {
+                keys.add(KEY_PREFIX + id);
+                keys.add(VERSION_KEY_PREFIX + id);
+            }
+            redisTemplate.execute(INVALIDATE_SCRIPT, keys, String.valueOf(ttlSeconds));
+            redisTemplate.convertAndSend(INVALIDATION_CHANNEL,
+                    ids.stream().map(String::valueOf).collect(Collectors.joining(",")));
+        } catch (DataAccessException e) {
+            // Other instances converge when their local entries (local-ttl-seconds) and the Redis entry (ttl-seconds) expire
+        }
+    }
+
+    /**
+     * Drops the local copies and makes loads already in flight for these ids discard their result.
+     */
+    private void evictLocal(Collection<Long> ids) {
+        synchronized (localCache) {
+            for (Long id : ids) {
+                generations.incrementAndGet(stripe(id));
+                localCache.remove(id);
+                // Later callers start a fresh load instead of joining one that may have read stale data
+                inFlight.remove(id);
+            }
+        }
+    }
+
+    private UserResponse getLocal(Long id) {
+        LocalEntry entry = localCache.get(id);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAtMillis() <= System.currentTimeMillis()) {
+            localCache.remove(id, entry);
+            return null;
+        }
+        return entry.profile();
+    }
+
+    private boolean putLocal(Long id, UserResponse user, long generation) {
+        synchronized (localCache) {
+            if (generations.get(stripe(id)) != generation) {
+                return false;
+            }
+            localCache.put(id, new LocalEntry(user, System.currentTimeMillis() + localTtlMillis));
+            return true;
+        }
+    }
+
+    /**
+     * Reads the cached profile and its version in one round trip; null if Redis is unavailable.
+     */
+    private RemoteEntry readRemote(Long id) {
+        List<String> values;
+        try {
+            values = redisTemplate.opsForValue().multiGet(List.of(KEY_PREFIX + id, VERSION_KEY_PREFIX + id));
+        } catch (DataAccessException e) {
+            return null;
+        }
+        if (values == null) {
+            return null;
+        }
+        String version = values.get(1) == null ? "" : values.get(1);
+        if (values.get(0) == null) {
+            return new RemoteEntry(null, version);
+        }
+        try {
+            return new RemoteEntry(objectMapper.readValue(values.get(0), UserResponse.class), version);
+        } catch (JsonProcessingException e) {
+            return new RemoteEntry(null, version);
+        }
+    }
+
+    private void writeRemote(Long id, UserResponse user, String versionSeen) {
+        try {
+            redisTemplate.execute(WRITE_SCRIPT, List.of(KEY_PREFIX + id, VERSION_KEY_PREFIX + id),
+                    versionSeen, objectMapper.writeValueAsString(user), String.valueOf(ttlSeconds));
+        } catch (DataAccessException | JsonProcessingException e) {
+            // Served from the local tier only
+        }
+    }
+
+    private static int stripe(Long id) {
+        return (int) (id ^ (id >>> 32)) & (GENERATION_STRIPES - 1);
+    }
+
+    private UserResponse join(CompletableFuture<UserResponse> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private double hitRatio() {
+        double hits = localHits.count() + redisHits.count();
+        double total = hits + misses.count();
+        return total == 0 ? 0.0 : hits / total;
+    }
+}
@@ -1,11 +1,15 @@
 package com.intelliguard.userservice.userservice.service;
 
+import com.intelliguard.userservice.userservice.dto.UserPageResponse;
+import com.intelliguard.userservice.userservice.dto.UserResponse;
 import com.intelliguard.userservice.userservice.entity.User;
 
-import java.util.List;
+import java.io.IOException;
+import java.io.OutputStream;
 
 public interface UserService {
-    User getUserById(Long id);
-    List<User> getUsers();
+    UserResponse getUserById(Long id);
+    UserPageResponse getUsers(Long after, int size, User.UserStatus status, String role, String emailPrefix);
+    void exportUsers(User.UserStatus status, String role, String emailPrefix, OutputStream out) throws IOException;
     User createUser(User user);
 }
@@ -1,35 +1,94 @@
 package com.intelliguard.userservice.userservice.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.intelliguard.userservice.userservice.dto.UserPageResponse;
+import com.intelliguard.userservice.userservice.dto.UserResponse;
 import com.intelliguard.userservice.userservice.entity.User;
 import com.intelliguard.userservice.userservice.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Service
 public class UserServiceImpl implements UserService {
 
+    private static final int MAX_PAGE_SIZE = 200;
+
     UserRepository userRepository;
+    ObjectMapper objectMapper;
+    UserProfileCache userProfileCache;
     @Autowired
-    public UserServiceImpl(UserRepository userRepository) {
+    public UserServiceImpl(UserRepository userRepository, ObjectMapper objectMapper, UserProfileCache userProfileCache) {
         this.userRepository = userRepository;
+        this.objectMapper = objectMapper;
+        this.userProfileCache = userProfileCache;
     }
 
 
     @Override
-    public User getUserById(Long id) {
-        User user = userRepository.findById(id).orElse(null);
-        return user;
+    public UserResponse getUserById(Long id) {
+        return userProfileCache.get(id, userId -> userRepository.findResponseById(userId).orElse(null));
+    }
+
+    @Override
+    public UserPageResponse getUsers(Long after, int size, User.UserStatus status, String role, String emailPrefix) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+
+        // Fetch one extra row to know whether another page exists without a count query
+        List<UserResponse> users = userRepository.findPageAfter(after == null ? 0L : after, status, role,
+                escapeLike(emailPrefix), Limit.of(pageSize + 1));
+        boolean hasMore = users.size() > pageSize;
+        if (hasMore) {
+            users = users.subList(0, pageSize);
+        }
+
+        return UserPageResponse.builder()
+                .users(users)
+                .nextCursor(hasMore ? users.get(users.size() - 1).getId() : null)
+                .hasMore(hasMore)
+                .build();
     }
 
     @Override
-    public List<User> getUsers() {
-        return (List<User>) userRepository.findAll();
+    @Transactional(readOnly = true)
+    public void exportUsers(User.UserStatus status, String role, String emailPrefix, OutputStream out) throws IOException {
+        // Rows come from a server-side cursor and are written one JSON object per line
+        try (Stream<UserResponse> users = userRepository.streamAll(status, role, escapeLike(emailPrefix))) {
+            users.forEach(user -> {
+                try {
+                    out.write(objectMapper.writeValueAsBytes(user));
+                    out.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        out.flush();
+    }
+
+    /**
+     * Escapes LIKE wildcards so a prefix only ever matches literally (and stays index friendly).
+     */
+    static String escapeLike(String prefix) {
+        if (prefix == null) {
+            return null;
+        }
+        return prefix.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
     }
 
     @Override
     public User createUser(User user) {
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        userProfileCache.invalidate(saved.getId());
+        return saved;
     }
 }
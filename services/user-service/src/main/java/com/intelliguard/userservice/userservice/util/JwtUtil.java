@@ -10,11 +10,17 @@ import java.nio.charset.StandardCharsets;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.UUID;
 import java.util.function.Function;
 
 @Component
 public class JwtUtil {
 
+    // Lets the gateway tell access tokens from refresh tokens, which are signed with the same key
+    public static final String TOKEN_TYPE_CLAIM = "token_type";
+    public static final String ACCESS_TOKEN_TYPE = "access";
+    public static final String REFRESH_TOKEN_TYPE = "refresh";
+
     @Value("${jwt.secret:IntelliGuard-Default-Secret-Key-Change-In-Production-Min-256-Bits}")
     private String secret;
 
@@ -28,18 +34,23 @@ public class JwtUtil {
         return Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
     }
 
-    public String generateToken(String email, String role, Long userId) {
+    public String generateToken(String email, String role, Long userId, long permissions) {
         Map<String, Object> claims = new HashMap<>();
         claims.put("role", role);
         claims.put("userId", userId);
-        return createToken(claims, email, expiration);
+        claims.put("perms", permissions); // Permission bit mask, see entity.Permission
+        return createToken(claims, email, ACCESS_TOKEN_TYPE, expiration);
     }
 
     public String generateRefreshToken(String email) {
-        return createToken(new HashMap<>(), email, refreshExpiration);
+        // A unique id keeps tokens issued to the same user within one second distinct
+        Map<String, Object> claims = new HashMap<>();
+        claims.put(Claims.ID, UUID.randomUUID().toString());
+        return createToken(claims, email, REFRESH_TOKEN_TYPE, refreshExpiration);
     }
 
-    private String createToken(Map<String, Object> claims, String subject, Long expirationTime) {
+    private String createToken(Map<String, Object> claims, String subject, String tokenType, Long expirationTime) {
+        claims.put(TOKEN_TYPE_CLAIM, tokenType);
         Date now = new Date();
         Date expiryDate = new Date(now.getTime() + expirationTime);
 
@@ -66,6 +77,11 @@ public class JwtUtil {
         return extractClaim(token, claims -> claims.get("userId", Long.class));
     }
 
+    public long extractPermissions(String token) {
+        Long permissions = extractClaim(token, claims -> claims.get("perms", Long.class));
+        return permissions == null ? 0L : permissions;
+    }
+
     public Date extractExpiration(String token) {
         return extractClaim(token, Claims::getExpiration);
     }
@@ -76,11 +92,11 @@ public class JwtUtil {
     }
 
     private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
+        return Jwts.parser()
+                .verifyWith(getSigningKey())
                 .build()
-                .parseClaimsJws(token)
-                .getBody();
+                .parseSignedClaims(token)
+                .getPayload();
     }
 
     public Boolean isTokenExpired(String token) {
@@ -102,10 +118,10 @@ public class JwtUtil {
 
     public Boolean validateToken(String token) {
         try {
-            Jwts.parserBuilder()
-                    .setSigningKey(getSigningKey())
+            Jwts.parser()
+                    .verifyWith(getSigningKey())
                     .build()
-                    .parseClaimsJws(token);
+                    .parseSignedClaims(token);
             return true;
         } catch (JwtException | IllegalArgumentException e) {
             return false;
@@ -0,0 +1,55 @@
+package com.intelliguard.userservice.userservice.controller;
+
+import com.intelliguard.userservice.userservice.dto.LoginRequest;
+import com.intelliguard.userservice.userservice.service.AuthService;
+import com.intelliguard.userservice.userservice.service.LoginAttemptService;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class AuthControllerTests {
+
+    private final AuthService authService = mock(AuthService.class);
+    private final MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new AuthController(authService)).build();
+
+    @Test
+    void throttledLoginIsTooManyRequestsWithRetryAfter() throws Exception {
+        when(authService.login(any(LoginRequest.class), eq("198.51.100.4")))
+                .thenThrow(new LoginAttemptService.LoginThrottledException(42));
+
+        mockMvc.perform(post("/api/v1/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"email\":\"alice@example.com\",\"password\":\"Secret1!x\"}")
+                        .header("X-Forwarded-For", "1.2.3.4, 198.51.100.4")
+                        .with(request -> {
+                            request.setRemoteAddr("10.0.0.2");
+                            return request;
+                        }))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "42"))
+                .andExpect(jsonPath("$.status").value(429));
+    }
+
+    @Test
+    void clientIpIsTheHopAppendedByTheGateway() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setRemoteAddr("10.0.0.2");
+        assertEquals("10.0.0.2", AuthController.resolveClientIp(request));
+
+        // Client-supplied entries come first and are ignored
+        request.addHeader("X-Forwarded-For", "6.6.6.6, 7.7.7.7,198.51.100.4");
+        assertEquals("198.51.100.4", AuthController.resolveClientIp(request));
+    }
+}
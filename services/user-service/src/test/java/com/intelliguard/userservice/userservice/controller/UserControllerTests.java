@@ -0,0 +1,85 @@
+package com.intelliguard.userservice.userservice.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.intelliguard.userservice.userservice.dto.UserResponse;
+import com.intelliguard.userservice.userservice.repository.UserRepository;
+import com.intelliguard.userservice.userservice.service.BulkUserImportService;
+import com.intelliguard.userservice.userservice.service.UserProfileCache;
+import com.intelliguard.userservice.userservice.service.UserService;
+import com.intelliguard.userservice.userservice.service.UserServiceImpl;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.io.InputStream;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class UserControllerTests {
+
+    private final UserService userService = mock(UserService.class);
+    private final BulkUserImportService bulkUserImportService = mock(BulkUserImportService.class);
+    private final MockMvc mockMvc = MockMvcBuilders
+            .standaloneSetup(new UserController(userService, bulkUserImportService))
+            .build();
+
+    @Test
+    void fullImportQueueIsServiceUnavailableWithRetryAfter() throws Exception {
+        when(bulkUserImportService.submit(any(InputStream.class)))
+                .thenThrow(new BulkUserImportService.ImportQueueFullException(30));
+
+        mockMvc.perform(post("/api/v1/users/import")
+                        .contentType("text/csv")
+                        .content("a@example.com,Passw0rd!,,"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "30"))
+                .andExpect(jsonPath("$.status").value(503));
+    }
+
+    @Test
+    void exportStreamsPastOneFetchPageAndEndsOnACompleteLine() throws Exception {
+        // More rows than the repository's 500-row fetch size, so the cursor has to be advanced mid-stream
+        int rows = 1201;
+        AtomicBoolean cursorClosed = new AtomicBoolean();
+        UserRepository userRepository = mock(UserRepository.class);
+        when(userRepository.streamAll(isNull(), isNull(), isNull())).thenReturn(LongStream.rangeClosed(1, rows)
+                .mapToObj(id -> UserResponse.builder().id(id).email("user" + id + "@example.com").status("ACTIVE").build())
+                .onClose(() -> cursorClosed.set(true)));
+        ObjectMapper objectMapper = new ObjectMapper();
+        UserServiceImpl exportingService = new UserServiceImpl(userRepository, objectMapper, mock(UserProfileCache.class));
+        MockMvc exportMvc = MockMvcBuilders
+                .standaloneSetup(new UserController(exportingService, bulkUserImportService))
+                .setAsyncRequestTimeout(60_000)
+                .build();
+
+        MvcResult started = exportMvc.perform(get("/api/v1/users/export").accept("application/x-ndjson"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String body = exportMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertTrue(body.endsWith("\n"));
+        String[] lines = body.split("\n");
+        assertEquals(rows, lines.length);
+        for (int i = 0; i < rows; i++) {
+            assertEquals(i + 1, objectMapper.readValue(lines[i], UserResponse.class).getId());
+        }
+        assertTrue(cursorClosed.get());
+    }
+}
@@ -0,0 +1,37 @@
+package com.intelliguard.userservice.userservice.entity;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PermissionTests {
+
+    @Test
+    void compilesNamesToBits() {
+        long mask = Permission.maskOf(List.of("READ_TRANSACTIONS", "MANAGE_ALERTS"));
+
+        assertEquals(0b1001, mask);
+        assertTrue(Permission.isGranted(mask, Permission.MANAGE_ALERTS));
+        assertFalse(Permission.isGranted(mask, Permission.MANAGE_USERS));
+        assertEquals(0L, Permission.maskOf(List.of()));
+    }
+
+    @Test
+    void wildcardGrantsEverything() {
+        assertEquals(Permission.ALL_MASK, Permission.maskOf(List.of("READ_ALERTS", "*")));
+        for (Permission permission : Permission.values()) {
+            assertTrue(Permission.isGranted(Permission.ALL_MASK, permission));
+        }
+    }
+
+    @Test
+    void rejectsUnknownNames() {
+        assertThrows(IllegalArgumentException.class, () -> Permission.maskOf(List.of("READ_ALERTS", "MANAGE_ALRETS")));
+        assertThrows(IllegalArgumentException.class, () -> Permission.maskOf(List.of("*", "read_alerts")));
+    }
+}
@@ -0,0 +1,108 @@
+package com.intelliguard.userservice.userservice.service;
+
+import com.intelliguard.userservice.userservice.dto.AuthResponse;
+import com.intelliguard.userservice.userservice.dto.RefreshTokenRequest;
+import com.intelliguard.userservice.userservice.dto.UserResponse;
+import com.intelliguard.userservice.userservice.repository.RefreshTokenRepository;
+import com.intelliguard.userservice.userservice.repository.UserRepository;
+import com.intelliguard.userservice.userservice.service.RefreshTokenCache.CachedRefreshToken;
+import com.intelliguard.userservice.userservice.util.JwtUtil;
+import com.intelliguard.userservice.userservice.util.TokenHasher;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Refresh token rotation against a cached token: the new tokens must reflect the user as they
+ * are now, not as they were when the old token was issued.
+ */
+class AuthServiceRefreshTests {
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final RoleRegistry roleRegistry = mock(RoleRegistry.class);
+    private final RefreshTokenRepository refreshTokenRepository = mock(RefreshTokenRepository.class);
+    private final RefreshTokenCache refreshTokenCache = mock(RefreshTokenCache.class);
+    private final UserProfileCache userProfileCache = mock(UserProfileCache.class);
+    private final JwtUtil jwtUtil = new JwtUtil();
+
+    private final AuthService authService = new AuthService(userRepository, roleRegistry, refreshTokenRepository,
+            mock(PasswordEncoder.class), jwtUtil, mock(LoginActivityBuffer.class), mock(LoginAttemptService.class),
+            refreshTokenCache, userProfileCache);
+
+    private final String oldToken = "old-refresh-token";
+    private final String oldHash = TokenHasher.sha256(oldToken);
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(jwtUtil, "secret", "IntelliGuard-Default-Secret-Key-Change-In-Production-Min-256-Bits");
+        ReflectionTestUtils.setField(jwtUtil, "expiration", 3_600_000L);
+        ReflectionTestUtils.setField(jwtUtil, "refreshExpiration", 604_800_000L);
+        ReflectionTestUtils.setField(authService, "jwtExpiration", 3_600_000L);
+        ReflectionTestUtils.setField(authService, "refreshExpiration", 604_800_000L);
+
+        when(refreshTokenCache.get(oldHash))
+                .thenReturn(new CachedRefreshToken(11L, 7L, System.currentTimeMillis() + 60_000));
+        when(roleRegistry.permissionMask("VIEWER")).thenReturn(1L);
+    }
+
+    @Test
+    void cachedTokenIsRotatedWithTheCurrentRole() {
+        // Issued while the user was an ANALYST, since demoted to VIEWER
+        when(userProfileCache.get(eq(7L), any())).thenReturn(profile("VIEWER", "ACTIVE"));
+        when(refreshTokenRepository.rotateToken(eq(11L), anyString(), any(), any())).thenReturn(Optional.of(12L));
+
+        AuthResponse response = authService.refreshToken(request());
+
+        assertEquals("VIEWER", jwtUtil.extractRole(response.getAccessToken()));
+        assertEquals(1L, jwtUtil.extractPermissions(response.getAccessToken()));
+        assertEquals("alice@example.com", jwtUtil.extractEmail(response.getAccessToken()));
+        assertEquals(JwtUtil.ACCESS_TOKEN_TYPE, jwtUtil.extractClaim(response.getAccessToken(),
+                claims -> claims.get(JwtUtil.TOKEN_TYPE_CLAIM, String.class)));
+        assertEquals(JwtUtil.REFRESH_TOKEN_TYPE, jwtUtil.extractClaim(response.getRefreshToken(),
+                claims -> claims.get(JwtUtil.TOKEN_TYPE_CLAIM, String.class)));
+        verify(refreshTokenRepository, never()).findByTokenHash(anyString());
+        verify(refreshTokenCache).evict(oldHash);
+        verify(refreshTokenCache).put(eq(TokenHasher.sha256(response.getRefreshToken())), any(CachedRefreshToken.class));
+    }
+
+    @Test
+    void suspendedUserCannotRefresh() {
+        when(userProfileCache.get(eq(7L), any())).thenReturn(profile("ANALYST", "SUSPENDED"));
+
+        assertThrows(IllegalArgumentException.class, () -> authService.refreshToken(request()));
+        verify(refreshTokenRepository, never()).rotateToken(anyLong(), anyString(), any(), any());
+        verify(refreshTokenCache).evict(oldHash);
+    }
+
+    @Test
+    void deletedUserCannotRefresh() {
+        when(userProfileCache.get(eq(7L), any())).thenReturn(null);
+
+        assertThrows(IllegalArgumentException.class, () -> authService.refreshToken(request()));
+        verify(refreshTokenRepository, never()).rotateToken(anyLong(), anyString(), any(), any());
+    }
+
+    private RefreshTokenRequest request() {
+        RefreshTokenRequest request = new RefreshTokenRequest();
+        request.setRefreshToken(oldToken);
+        return request;
+    }
+
+    private static UserResponse profile(String role, String status) {
+        return UserResponse.builder().id(7L).email("alice@example.com").role(role).status(status).build();
+    }
+}
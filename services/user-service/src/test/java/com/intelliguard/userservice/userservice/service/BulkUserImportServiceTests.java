@@ -0,0 +1,168 @@
+package com.intelliguard.userservice.userservice.service;
+
+import com.intelliguard.userservice.userservice.dto.BulkImportStatus;
+import com.intelliguard.userservice.userservice.dto.RegisterRequest;
+import com.intelliguard.userservice.userservice.entity.Role;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class BulkUserImportServiceTests {
+
+    private final NamedParameterJdbcTemplate jdbcTemplate = mock(NamedParameterJdbcTemplate.class);
+    private final PasswordEncoder passwordEncoder = mock(PasswordEncoder.class);
+    private final RoleRegistry roleRegistry = mock(RoleRegistry.class);
+    private final List<List<String>> insertedChunks = new CopyOnWriteArrayList<>();
+
+    // Stands in for the database: "raced@example.com" is taken by a concurrent insert and skipped by ON CONFLICT
+    private final BulkUserImportService service = new BulkUserImportService(jdbcTemplate,
+            mock(TransactionTemplate.class), passwordEncoder, roleRegistry,
+            Validation.buildDefaultValidatorFactory().getValidator()) {
+        @Override
+        int insertUsers(List<RegisterRequest> users, List<String> passwordHashes, Long roleId) {
+            List<String> emails = users.stream().map(RegisterRequest::getEmail).toList();
+            insertedChunks.add(emails);
+            return (int) emails.stream().filter(email -> !email.equals("raced@example.com")).count();
+        }
+    };
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(service, "batchSize", 2);
+        ReflectionTestUtils.setField(service, "hashThreads", 1);
+        ReflectionTestUtils.setField(service, "maxConcurrentJobs", 1);
+        ReflectionTestUtils.setField(service, "maxQueuedJobs", 1);
+        service.init();
+
+        when(roleRegistry.getRole(Role.RoleName.VIEWER.name())).thenReturn(Role.builder().id(3L).build());
+        when(passwordEncoder.encode(anyString())).thenAnswer(invocation -> "hash:" + invocation.getArgument(0));
+        when(jdbcTemplate.queryForList(anyString(), any(SqlParameterSource.class), eq(String.class)))
+                .thenAnswer(invocation -> {
+                    SqlParameterSource params = invocation.getArgument(1);
+                    List<?> emails = (List<?>) params.getValue("emails");
+                    return emails.contains("existing@example.com") ? List.of("existing@example.com") : List.of();
+                });
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void countsOnlyRowsTheInsertReturned() throws Exception {
+        BulkImportStatus status = importCsv(String.join("\n",
+                "Email,Password,First Name,Last Name",
+                "a@example.com,Passw0rd!,\"Smith, Jr.\",Adams",
+                "b@example.com,Passw0rd!,,",
+                "existing@example.com,Passw0rd!,,",
+                "not-an-email,Passw0rd!,,",
+                "\"c@example.com,Passw0rd!,,",
+                "raced@example.com,Passw0rd!,,",
+                "",
+                "c@example.com,Passw0rd!,,"));
+
+        assertEquals("COMPLETED", status.getStatus());
+        assertEquals(7, status.getProcessed());
+        assertEquals(3, status.getImported());
+        assertEquals(2, status.getDuplicates());
+        assertEquals(2, status.getRejected());
+        assertEquals(List.of(List.of("a@example.com", "b@example.com"), List.of("raced@example.com"),
+                List.of("c@example.com")), insertedChunks);
+    }
+
+    @Test
+    void onlySkipsAFirstLineThatIsTheHeader() throws Exception {
+        BulkImportStatus status = importCsv("email.owner@example.com,Passw0rd!,,\n");
+
+        assertEquals(1, status.getImported());
+        assertEquals(List.of(List.of("email.owner@example.com")), insertedChunks);
+    }
+
+    @Test
+    void refusesImportsOnceTheQueueIsFull() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(roleRegistry.getRole(Role.RoleName.VIEWER.name())).thenAnswer(invocation -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return Role.builder().id(3L).build();
+        });
+
+        BulkImportStatus running = service.submit(csv("a@example.com,Passw0rd!,,"));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        BulkImportStatus queued = service.submit(csv("b@example.com,Passw0rd!,,"));
+        long spoolsBefore = countSpoolFiles();
+
+        BulkUserImportService.ImportQueueFullException e = assertThrows(
+                BulkUserImportService.ImportQueueFullException.class,
+                () -> service.submit(csv("c@example.com,Passw0rd!,,")));
+        assertTrue(e.getRetryAfterSeconds() > 0);
+        assertEquals(spoolsBefore, countSpoolFiles());
+        assertEquals("QUEUED", service.getStatus(queued.getJobId()).getStatus());
+
+        release.countDown();
+        assertEquals("COMPLETED", await(running.getJobId()).getStatus());
+        assertEquals("COMPLETED", await(queued.getJobId()).getStatus());
+    }
+
+    @Test
+    void parsesQuotedFields() {
+        assertEquals(List.of("a@example.com", "pa,ss\"word", "", "Lee"),
+                BulkUserImportService.parseCsvLine("a@example.com,\"pa,ss\"\"word\",,Lee"));
+        assertEquals(List.of("", ""), BulkUserImportService.parseCsvLine(","));
+        assertNull(BulkUserImportService.parseCsvLine("a@example.com,\"unterminated"));
+        assertNull(BulkUserImportService.parseCsvLine("a@example.com,\"quoted\"trailing"));
+    }
+
+    private BulkImportStatus importCsv(String csv) throws Exception {
+        return await(service.submit(csv(csv)).getJobId());
+    }
+
+    private static ByteArrayInputStream csv(String csv) {
+        return new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static long countSpoolFiles() throws Exception {
+        try (Stream<Path> files = Files.list(Path.of(System.getProperty("java.io.tmpdir")))) {
+            return files.filter(file -> file.getFileName().toString().startsWith("user-import-")).count();
+        }
+    }
+
+    private BulkImportStatus await(String jobId) throws Exception {
+        for (int i = 0; i < 100; i++) {
+            BulkImportStatus current = service.getStatus(jobId);
+            if (current.getFinishedAt() != null) {
+                return current;
+            }
+            Thread.sleep(50);
+        }
+        throw new AssertionError("import did not finish");
+    }
+}
@@ -0,0 +1,93 @@
+package com.intelliguard.userservice.userservice.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Exercises the local sliding windows; the Redis template is a mock that returns nothing, as
+ * when Redis is unavailable.
+ */
+class LoginAttemptServiceTests {
+
+    private final LoginAttemptService service = new LoginAttemptService(mock(StringRedisTemplate.class));
+
+    @BeforeEach
+    void configure() {
+        ReflectionTestUtils.setField(service, "maxAttemptsPerEmail", 5);
+        ReflectionTestUtils.setField(service, "maxAttemptsPerIp", 20);
+        ReflectionTestUtils.setField(service, "windowMs", 60_000L);
+        ReflectionTestUtils.setField(service, "maxTrackedKeys", 1000);
+    }
+
+    @Test
+    void blocksEmailOnceWindowReachesLimit() {
+        for (int i = 0; i < 4; i++) {
+            assertEquals(i + 1, service.recordFailure("Alice@Example.com", "10.0.0." + i));
+        }
+        assertFalse(service.isBlocked("alice@example.com", "10.0.1.1"));
+
+        int attempts = service.recordFailure("alice@example.com", "10.0.0.9");
+        assertTrue(service.isLockThreshold(attempts));
+        assertTrue(service.isBlocked("alice@example.com", "10.0.1.1"));
+        assertFalse(service.isBlocked("bob@example.com", "10.0.1.1"));
+
+        service.reset("alice@example.com");
+        assertFalse(service.isBlocked("alice@example.com", "10.0.1.1"));
+    }
+
+    @Test
+    void blocksIpAcrossEmails() {
+        for (int i = 0; i < 20; i++) {
+            service.recordFailure("user" + i + "@example.com", "203.0.113.7");
+        }
+        assertTrue(service.isBlocked("someone-new@example.com", "203.0.113.7"));
+        assertFalse(service.isBlocked("someone-new@example.com", "203.0.113.8"));
+    }
+
+    @Test
+    void failuresLeaveTheWindow() throws InterruptedException {
+        ReflectionTestUtils.setField(service, "windowMs", 1000L);
+        for (int i = 0; i < 5; i++) {
+            service.recordFailure("alice@example.com", "10.0.0.1");
+        }
+        assertTrue(service.isBlocked("alice@example.com", "10.0.0.1"));
+        assertEquals(1, service.retryAfterSeconds("alice@example.com", "10.0.0.1"));
+
+        Thread.sleep(1100);
+        assertFalse(service.isBlocked("alice@example.com", "10.0.0.1"));
+        service.evictExpiredWindows();
+        assertTrue(localWindows().isEmpty());
+    }
+
+    @Test
+    void retryAfterCoversTheRemainingWindow() {
+        for (int i = 0; i < 5; i++) {
+            service.recordFailure("alice@example.com", "10.0.0.1");
+        }
+        long retryAfter = service.retryAfterSeconds("alice@example.com", "10.0.0.1");
+        assertTrue(retryAfter > 55 && retryAfter <= 60, "retry after " + retryAfter);
+    }
+
+    @Test
+    void boundsLocallyTrackedKeys() {
+        ReflectionTestUtils.setField(service, "maxTrackedKeys", 50);
+        for (int i = 0; i < 1000; i++) {
+            service.recordFailure("random" + i + "@example.com", "198.51.100." + (i % 250));
+        }
+        assertEquals(50, localWindows().size());
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, ?> localWindows() {
+        return (Map<String, ?>) ReflectionTestUtils.getField(service, "localWindows");
+    }
+}
@@ -0,0 +1,96 @@
+package com.intelliguard.userservice.userservice.service;
+
+import com.intelliguard.userservice.userservice.service.RefreshTokenCache.CachedRefreshToken;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RefreshTokenCacheTests {
+
+    @SuppressWarnings("unchecked")
+    private final ValueOperations<String, String> values = mock(ValueOperations.class);
+    private final StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+    private final RefreshTokenCache cache = new RefreshTokenCache(redisTemplate);
+
+    @BeforeEach
+    void setUp() {
+        when(redisTemplate.opsForValue()).thenReturn(values);
+        ReflectionTestUtils.setField(cache, "localCacheSize", 2);
+        cache.init();
+    }
+
+    @Test
+    void servesPutEntriesLocally() {
+        CachedRefreshToken token = live(1L, 7L);
+        cache.put("hash-1", token);
+
+        assertEquals(token, cache.get("hash-1"));
+        verify(values).set(eq("refresh:v2:hash-1"), eq("1|7|" + token.expiresAtMillis()), any(Duration.class));
+        verify(values, never()).get(anyString());
+    }
+
+    @Test
+    void fallsBackToRedisOnLocalMiss() {
+        CachedRefreshToken token = live(2L, 8L);
+        when(values.get("refresh:v2:hash-2")).thenReturn(token.serialize());
+
+        assertEquals(token, cache.get("hash-2"));
+        assertEquals(token, cache.get("hash-2"));
+        verify(values, times(1)).get("refresh:v2:hash-2");
+
+        assertNull(cache.get("unknown"));
+    }
+
+    @Test
+    void dropsExpiredEntries() {
+        CachedRefreshToken expired = new CachedRefreshToken(3L, 9L, System.currentTimeMillis() - 1);
+        when(values.get("refresh:v2:hash-3")).thenReturn(expired.serialize());
+
+        assertNull(cache.get("hash-3"));
+        verify(redisTemplate).delete("refresh:v2:hash-3");
+
+        cache.put("hash-4", expired);
+        verify(values, never()).set(eq("refresh:v2:hash-4"), anyString(), any(Duration.class));
+    }
+
+    @Test
+    void rotationEvictsTheOldTokenAndCachesTheNewOne() {
+        cache.put("old", live(1L, 7L));
+        cache.evict("old");
+        cache.put("new", live(2L, 7L));
+
+        assertNull(cache.get("old"));
+        assertEquals(2L, cache.get("new").tokenId());
+        verify(redisTemplate).delete("refresh:v2:old");
+    }
+
+    @Test
+    void localTierIsBounded() {
+        cache.put("a", live(1L, 1L));
+        cache.put("b", live(2L, 2L));
+        cache.put("c", live(3L, 3L));
+
+        // "a" was evicted locally and is read back from Redis
+        cache.get("a");
+        verify(values).get("refresh:v2:a");
+    }
+
+    private static CachedRefreshToken live(Long tokenId, Long userId) {
+        return new CachedRefreshToken(tokenId, userId, System.currentTimeMillis() + 60_000);
+    }
+}
@@ -0,0 +1,65 @@
+package com.intelliguard.userservice.userservice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.intelliguard.userservice.userservice.entity.Permission;
+import com.intelliguard.userservice.userservice.entity.Role;
+import com.intelliguard.userservice.userservice.repository.RoleRepository;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class RoleRegistryTests {
+
+    private final RoleRepository roleRepository = mock(RoleRepository.class);
+    private final RoleRegistry registry = new RoleRegistry(roleRepository, new ObjectMapper());
+
+    private final LocalDateTime t0 = LocalDateTime.of(2026, 1, 1, 0, 0);
+
+    @Test
+    void refreshesWhenTheTableChanges() {
+        when(roleRepository.findAll()).thenReturn(List.of(role("VIEWER", "[\"READ_ALERTS\"]", t0)));
+        registry.load();
+        assertEquals(Permission.READ_ALERTS.mask(), registry.permissionMask("VIEWER"));
+
+        when(roleRepository.findLatestUpdatedAt()).thenReturn(Optional.of(t0.plusMinutes(1)));
+        when(roleRepository.count()).thenReturn(1L);
+        when(roleRepository.findAll())
+                .thenReturn(List.of(role("VIEWER", "[\"READ_ALERTS\", \"READ_TRANSACTIONS\"]", t0.plusMinutes(1))));
+        registry.refreshIfChanged();
+
+        assertEquals(Permission.READ_ALERTS.mask() | Permission.READ_TRANSACTIONS.mask(),
+                registry.permissionMask("VIEWER"));
+        assertEquals(0L, registry.permissionMask("UNKNOWN_ROLE"));
+    }
+
+    @Test
+    void unknownPermissionFailsTheLoad() {
+        when(roleRepository.findAll()).thenReturn(List.of(role("ANALYST", "[\"READ_ALRETS\"]", t0)));
+        assertThrows(IllegalStateException.class, registry::load);
+    }
+
+    @Test
+    void failedRefreshKeepsThePreviousSnapshot() {
+        when(roleRepository.findAll()).thenReturn(List.of(role("ANALYST", "[\"READ_ALERTS\", \"MANAGE_ALERTS\"]", t0)));
+        registry.load();
+        long before = registry.permissionMask("ANALYST");
+
+        when(roleRepository.findLatestUpdatedAt()).thenReturn(Optional.of(t0.plusMinutes(1)));
+        when(roleRepository.count()).thenReturn(1L);
+        when(roleRepository.findAll()).thenReturn(List.of(role("ANALYST", "[\"READ_ALERTS\", \"MANAGE_ALRETS\"]", t0.plusMinutes(1))));
+        registry.refreshIfChanged();
+
+        assertEquals(before, registry.permissionMask("ANALYST"));
+    }
+
+    private static Role role(String name, String permissions, LocalDateTime updatedAt) {
+        return Role.builder().id(1L).name(name).permissions(permissions).updatedAt(updatedAt).build();
+    }
+}
@@ -0,0 +1,115 @@
+package com.intelliguard.userservice.userservice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.intelliguard.userservice.userservice.dto.UserResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UserProfileCacheTests {
+
+    private final ObjectMapper objectMapper = JsonMapper.builder().findAndAddModules().build();
+    private final StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+    @SuppressWarnings("unchecked")
+    private final ValueOperations<String, String> values = mock(ValueOperations.class);
+    private final UserProfileCache cache = new UserProfileCache(redisTemplate, objectMapper, new SimpleMeterRegistry());
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        when(redisTemplate.opsForValue()).thenReturn(values);
+        when(values.multiGet(anyList())).thenReturn(Arrays.asList(null, null));
+        ReflectionTestUtils.setField(cache, "localSize", 100);
+        ReflectionTestUtils.setField(cache, "ttlSeconds", 300L);
+        ReflectionTestUtils.setField(cache, "localTtlSeconds", 30L);
+        cache.init();
+    }
+
+    @Test
+    void loadsOnceThenServesLocally() {
+        assertEquals("ANALYST", cache.get(7L, id -> load(id, "ANALYST")).getRole());
+        assertEquals("ANALYST", cache.get(7L, id -> load(id, "ANALYST")).getRole());
+
+        assertEquals(1, loads.get());
+        // Written back only if nobody invalidated since the (absent) version was read
+        verify(redisTemplate).execute(eq(UserProfileCache.WRITE_SCRIPT),
+                eq(List.of("user:profile:7", "user:profile:version:7")), eq(""), any(), eq("300"));
+    }
+
+    @Test
+    void expiredLocalEntriesAreMisses() throws Exception {
+        // A missed invalidation message must not keep a profile cached locally for good
+        ReflectionTestUtils.setField(cache, "localTtlSeconds", 1L);
+        cache.init();
+
+        assertEquals("ACTIVE", cache.get(7L, id -> load(id, "ANALYST")).getStatus());
+        Thread.sleep(1100);
+        assertEquals("SUSPENDED", cache.get(7L, id -> {
+            loads.incrementAndGet();
+            return UserResponse.builder().id(id).role("ANALYST").status("SUSPENDED").build();
+        }).getStatus());
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void servesRedisHitsWithoutLoading() throws Exception {
+        String json = objectMapper.writeValueAsString(UserResponse.builder().id(8L).role("VIEWER").build());
+        when(values.multiGet(List.of("user:profile:8", "user:profile:version:8"))).thenReturn(Arrays.asList(json, "3"));
+
+        assertEquals("VIEWER", cache.get(8L, id -> load(id, "ADMIN")).getRole());
+        assertEquals(0, loads.get());
+    }
+
+    @Test
+    void loadOverlappingAnInvalidationIsNotWrittenBack() {
+        // The row is read, then an update commits and invalidates before the loader returns
+        UserResponse stale = cache.get(7L, id -> {
+            UserResponse read = load(id, "ANALYST");
+            cache.invalidate(id);
+            return read;
+        });
+        assertEquals("ANALYST", stale.getRole());
+        verify(redisTemplate).execute(eq(UserProfileCache.INVALIDATE_SCRIPT),
+                eq(List.of("user:profile:7", "user:profile:version:7")), eq("300"));
+        verify(redisTemplate, never()).execute(eq(UserProfileCache.WRITE_SCRIPT), anyList(), any(Object[].class));
+
+        // Nothing stale was cached, so the next read goes back to the database
+        assertEquals("VIEWER", cache.get(7L, id -> load(id, "VIEWER")).getRole());
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void invalidationFromAnotherInstanceDropsTheLocalCopy() {
+        cache.get(7L, id -> load(id, "ANALYST"));
+        cache.get(9L, id -> load(id, "ANALYST"));
+
+        cache.onInvalidation("7, 42");
+
+        assertEquals("VIEWER", cache.get(7L, id -> load(id, "VIEWER")).getRole());
+        assertEquals("ANALYST", cache.get(9L, id -> load(id, "VIEWER")).getRole());
+        assertEquals(3, loads.get());
+    }
+
+    private UserResponse load(Long id, String role) {
+        loads.incrementAndGet();
+        return UserResponse.builder().id(id).email("user" + id + "@example.com").role(role).status("ACTIVE").build();
+    }
+}
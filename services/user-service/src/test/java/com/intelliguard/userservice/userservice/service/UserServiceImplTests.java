@@ -0,0 +1,60 @@
+package com.intelliguard.userservice.userservice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.intelliguard.userservice.userservice.dto.UserPageResponse;
+import com.intelliguard.userservice.userservice.dto.UserResponse;
+import com.intelliguard.userservice.userservice.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
+
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UserServiceImplTests {
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final UserServiceImpl userService =
+            new UserServiceImpl(userRepository, new ObjectMapper(), mock(UserProfileCache.class));
+
+    @Test
+    void escapesLikeWildcardsInEmailPrefix() {
+        assertEquals("a\\_b\\%c\\\\d", UserServiceImpl.escapeLike("a_b%c\\d"));
+        assertEquals("alice", UserServiceImpl.escapeLike("alice"));
+        assertNull(UserServiceImpl.escapeLike(null));
+
+        userService.getUsers(null, 10, null, null, "%");
+        verify(userRepository).findPageAfter(eq(0L), isNull(), isNull(), eq("\\%"), eq(Limit.of(11)));
+    }
+
+    @Test
+    void pagesByKeysetWithoutCounting() {
+        when(userRepository.findPageAfter(eq(40L), any(), any(), any(), eq(Limit.of(3)))).thenReturn(users(41, 44));
+
+        UserPageResponse page = userService.getUsers(40L, 2, null, null, null);
+        assertEquals(2, page.getUsers().size());
+        assertTrue(page.isHasMore());
+        assertEquals(42L, page.getNextCursor());
+
+        when(userRepository.findPageAfter(eq(42L), any(), any(), any(), eq(Limit.of(3)))).thenReturn(users(43, 44));
+        UserPageResponse last = userService.getUsers(42L, 2, null, null, null);
+        assertFalse(last.isHasMore());
+        assertNull(last.getNextCursor());
+    }
+
+    private static List<UserResponse> users(long fromInclusive, long toExclusive) {
+        return LongStream.range(fromInclusive, toExclusive)
+                .mapToObj(id -> UserResponse.builder().id(id).email("user" + id + "@example.com").build())
+                .toList();
+    }
+}